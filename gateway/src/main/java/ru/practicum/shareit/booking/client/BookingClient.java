@@ -27,12 +27,15 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getAllBookings(long userId, String state, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllBookings(long userId, String state, Integer from, Integer size, String after,
+                                                 String view) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("state", state);
         parameters.put("size", size);
         parameters.put("from", from);
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        parameters.put("after", after);
+        parameters.put("view", toViewParameter(view));
+        return get("?state={state}&from={from}&size={size}&after={after}&view={view}", userId, parameters);
     }
 
     public ResponseEntity<Object> createBooking(long userId, BookingInputDto requestDto) {
@@ -47,11 +50,26 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsForOwner(long userId, String state, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllBookingsForOwner(long userId, String state, Integer from, Integer size,
+                                                         String after, String view) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("state", state);
         parameters.put("size", size);
         parameters.put("from", from);
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        parameters.put("after", after);
+        parameters.put("view", toViewParameter(view));
+        return get("/owner?state={state}&from={from}&size={size}&after={after}&view={view}", userId, parameters);
     }
-}
\ No newline at end of file
+
+    public ResponseEntity<Object> getSummary(long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerSummary(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    private String toViewParameter(String view) {
+        return view != null ? view.toLowerCase() : null;
+    }
+}
@@ -47,9 +47,11 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(defaultValue = "ALL", required = false) String state,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view) {
         log.info("Запрос на получение всех бронирований");
-        return bookingClient.getAllBookings(userId, state, from, size);
+        return bookingClient.getAllBookings(userId, state, from, size, after, view);
     }
 
     @GetMapping("owner")
@@ -57,8 +59,22 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(defaultValue = "ALL", required = false) String state,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view) {
         log.info("Запрос на получение всех бронирований пользователя - {}", userId);
-        return bookingClient.getAllBookingsForOwner(userId, state, from, size);
+        return bookingClient.getAllBookingsForOwner(userId, state, from, size, after, view);
+    }
+
+    @GetMapping("summary")
+    public ResponseEntity<Object> getSummary(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Запрос на количество бронирований пользователя по статусам - {}", userId);
+        return bookingClient.getSummary(userId);
+    }
+
+    @GetMapping("owner/summary")
+    public ResponseEntity<Object> getOwnerSummary(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Запрос на количество бронирований владельца по статусам - {}", userId);
+        return bookingClient.getOwnerSummary(userId);
     }
 }
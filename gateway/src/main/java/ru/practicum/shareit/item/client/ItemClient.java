@@ -11,6 +11,7 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,8 +37,10 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<Object> getItemById(long itemId, long userId, String expand) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("expand", expand);
+        return get("/" + itemId + "?expand={expand}", userId, parameters);
     }
 
     public ResponseEntity<Object> getItemsByUser(Long userId, Integer from, Integer size) {
@@ -47,12 +50,27 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemByText(String text, Integer from, Integer size) {
+    public ResponseEntity<Object> getItemByText(String text, Integer from, Integer size, String expand) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("text", text);
         parameters.put("size", size);
         parameters.put("from", from);
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        parameters.put("expand", expand);
+        return get("/search?text={text}&from={from}&size={size}&expand={expand}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getSuggestions(String prefix, Integer limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("prefix", prefix);
+        parameters.put("limit", limit);
+        return get("/suggest?prefix={prefix}&limit={limit}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> addComment(long itemId, long authorId, CommentDto commentDto) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.groups.Create;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/items")
@@ -31,16 +33,35 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> getItemByText(@RequestParam String text,
                                        @RequestParam(required = false) Integer from,
-                                       @RequestParam(required = false) Integer size) {
+                                       @RequestParam(required = false) Integer size,
+                                       @RequestParam(required = false) String expand) {
         log.info("Запрос на поиск вещи по названию или описанию: {}", text);
-        return itemClient.getItemByText(text, from, size);
+        return itemClient.getItemByText(text, from, size, expand);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> getSuggestions(@RequestParam String prefix,
+                                                 @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Запрос на подсказки по названию вещи: {}", prefix);
+        return itemClient.getSuggestions(prefix, limit);
     }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-                               @PathVariable Long itemId) {
+                               @PathVariable Long itemId,
+                               @RequestParam(required = false) String expand) {
         log.info("Запрос на получение вещи по ID - {}", itemId);
-        return itemClient.getItemById(itemId, userId);
+        return itemClient.getItemById(itemId, userId, expand);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Запрос на календарь доступности вещи - {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @PostMapping
@@ -25,6 +25,7 @@ public class ItemDto {
     @NotNull(message = "Статус не может отсутствовать", groups = Create.class)
     private Boolean available;
     private Long requestId;
+    private Long ownerId;
     private UserDto owner;
     private List<CommentDto> comments;
     private DateBookingDto lastBooking;
@@ -31,15 +31,19 @@ public class RequestClient extends BaseClient {
         return post(userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequestsByUser(long userId) {
-        return get(userId);
+    public ResponseEntity<Object> getRequestsByUser(long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(long userId, Integer from, Integer size, String after) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("from", from);
         parameters.put("size", size);
-        return get("/all?from={from}&size={size}", userId, parameters);
+        parameters.put("after", after);
+        return get("/all?from={from}&size={size}&after={after}", userId, parameters);
     }
 
     public ResponseEntity<Object> getRequestById(long itemRequestId, long userId) {
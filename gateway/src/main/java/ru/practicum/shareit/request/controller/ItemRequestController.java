@@ -19,9 +19,11 @@ public class ItemRequestController {
     private final RequestClient requestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getYourRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+    public ResponseEntity<Object> getYourRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+                                                  @RequestParam(required = false) Integer from,
+                                                  @RequestParam(required = false) Integer size) {
         log.info("Запрос на получение своих запросов");
-        return requestClient.getRequestsByUser(userId);
+        return requestClient.getRequestsByUser(userId, from, size);
     }
 
     @PostMapping
@@ -33,10 +35,11 @@ public class ItemRequestController {
 
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-                                               @RequestParam(defaultValue = "0") Integer from,
-                                               @RequestParam(defaultValue = "10") Integer size) {
+                                               @RequestParam(required = false) Integer from,
+                                               @RequestParam(defaultValue = "10") Integer size,
+                                               @RequestParam(required = false) String after) {
         log.info("Запрос на получение всех запросов");
-        return requestClient.getAllRequests(userId,from,size);
+        return requestClient.getAllRequests(userId, from, size, after);
     }
 
     @GetMapping("{requestId}")
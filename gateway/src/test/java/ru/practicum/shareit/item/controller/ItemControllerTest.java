@@ -14,9 +14,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDate;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -119,4 +122,42 @@ class ItemControllerTest {
                         .content(objectMapper.writeValueAsString(itemDto)))
                 .andExpect(status().is4xxClientError());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenDatesCorrect_thenReturnedOk() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(5);
+        when(client.getAvailability(1L, from, to)).thenReturn(ResponseEntity.ok().build());
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenDateIncorrect_thenReturnedClientError() {
+        mockMvc.perform(get("/items/{itemId}/availability", 1)
+                        .param("from", "18.10.2026"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @SneakyThrows
+    @Test
+    void getSuggestions_whenPrefixPresent_thenReturnedOk() {
+        when(client.getSuggestions("дре", 10)).thenReturn(ResponseEntity.ok().build());
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре"))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    @SneakyThrows
+    @Test
+    void getSuggestions_whenPrefixNotPresent_thenReturnedClientError() {
+        mockMvc.perform(get("/items/suggest"))
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -2,11 +2,16 @@ package ru.practicum.shareit.booking.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.exception.InvalidRequestException;
+import ru.practicum.shareit.paging.Cursor;
 
 import org.jetbrains.annotations.NotNull;
 import java.util.List;
@@ -14,6 +19,9 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String SHORT_VIEW = "short";
+    private static final String FULL_VIEW = "view=full";
+
     private final BookingService bookingService;
 
     @Autowired
@@ -45,22 +53,101 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingOutputDto> getAllBookings(
+    public ResponseEntity<List<BookingShortDto>> getShortBookings(
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+            @RequestParam(defaultValue = "ALL", required = false) BookingState state,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view
+    ) {
+        checkShortView(view);
+        if (isBlank(after)) {
+            return toShortPage(bookingService.getShortBookings(userId, state, from, size), size);
+        }
+        return toShortPage(bookingService.getShortBookingsAfter(userId, state, toCursor(after, from), size), size);
+    }
+
+    @GetMapping(params = FULL_VIEW)
+    public ResponseEntity<List<BookingOutputDto>> getAllBookings(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(defaultValue = "ALL", required = false) BookingState state,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after
     ) {
-        return bookingService.getAllBookings(userId, state,from,size);
+        if (isBlank(after)) {
+            return toPage(bookingService.getAllBookings(userId, state, from, size), size);
+        }
+        return toPage(bookingService.getAllBookingsAfter(userId, state, toCursor(after, from), size), size);
     }
 
     @GetMapping("owner")
-    public List<BookingOutputDto> getAllBookingsForOwner(
+    public ResponseEntity<List<BookingShortDto>> getShortBookingsForOwner(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(defaultValue = "ALL", required = false) BookingState state,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view
     ) {
-        return bookingService.getAllBookingsForOwner(userId, state,from,size);
+        checkShortView(view);
+        if (isBlank(after)) {
+            return toShortPage(bookingService.getShortBookingsForOwner(userId, state, from, size), size);
+        }
+        return toShortPage(bookingService.getShortBookingsForOwnerAfter(userId, state, toCursor(after, from), size), size);
+    }
+
+    @GetMapping(path = "owner", params = FULL_VIEW)
+    public ResponseEntity<List<BookingOutputDto>> getAllBookingsForOwner(
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+            @RequestParam(defaultValue = "ALL", required = false) BookingState state,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after
+    ) {
+        if (isBlank(after)) {
+            return toPage(bookingService.getAllBookingsForOwner(userId, state, from, size), size);
+        }
+        return toPage(bookingService.getAllBookingsForOwnerAfter(userId, state, toCursor(after, from), size), size);
+    }
+
+    @GetMapping("summary")
+    public BookingSummaryDto getSummary(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        return bookingService.getSummary(userId);
+    }
+
+    @GetMapping("owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        return bookingService.getOwnerSummary(userId);
+    }
+
+    private void checkShortView(String view) {
+        if (!isBlank(view) && !SHORT_VIEW.equals(view)) {
+            throw new InvalidRequestException("Unknown view: " + view);
+        }
+    }
+
+    private boolean isBlank(String after) {
+        return after == null || after.isBlank();
+    }
+
+    private Cursor toCursor(String after, Integer from) {
+        if (from != null) {
+            throw new InvalidRequestException("must provide either from or after");
+        }
+        return Cursor.decode(after);
+    }
+
+    private ResponseEntity<List<BookingOutputDto>> toPage(List<BookingOutputDto> bookings, Integer size) {
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPageHeaders(bookings, size, BookingOutputDto::getStart, BookingOutputDto::getId))
+                .body(bookings);
+    }
+
+    private ResponseEntity<List<BookingShortDto>> toShortPage(List<BookingShortDto> bookings, Integer size) {
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPageHeaders(bookings, size, BookingShortDto::getStart, BookingShortDto::getId))
+                .body(bookings);
     }
 }
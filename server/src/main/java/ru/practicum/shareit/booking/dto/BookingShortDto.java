@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingShortDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+    private ItemShort item;
+    private BookerShort booker;
+
+    public BookingShortDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                           Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, status, new ItemShort(itemId, itemName), new BookerShort(bookerId, bookerName));
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemShort {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BookerShort {
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BookingSummaryDto {
+    private long all;
+    private long current;
+    private long past;
+    private long future;
+    private long waiting;
+    private long rejected;
+
+    public BookingSummaryDto(Long all, Long current, Long past, Long future, Long waiting, Long rejected) {
+        this.all = toCount(all);
+        this.current = toCount(current);
+        this.past = toCount(past);
+        this.future = toCount(future);
+        this.waiting = toCount(waiting);
+        this.rejected = toCount(rejected);
+    }
+
+    private static long toCount(Long value) {
+        return value != null ? value : 0;
+    }
+}
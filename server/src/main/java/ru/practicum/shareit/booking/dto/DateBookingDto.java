@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,4 +15,6 @@ public class DateBookingDto {
     private Long bookerId;
     private LocalDateTime start;
     private LocalDateTime end;
+    @JsonIgnore
+    private Long itemId;
 }
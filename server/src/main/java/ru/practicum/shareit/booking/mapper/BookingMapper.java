@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.dto.DateBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 
 public class BookingMapper {
@@ -23,10 +24,23 @@ public class BookingMapper {
                 .start(bookingDto.getStart())
                 .booker(bookingDto.getBooker())
                 .item(bookingDto.getItem())
+                .owner(bookingDto.getItem().getOwner())
                 .status(bookingDto.getStatus())
                 .build();
     }
 
+    public static Booking toBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .end(archivedBooking.getEnd())
+                .start(archivedBooking.getStart())
+                .booker(archivedBooking.getBooker())
+                .item(archivedBooking.getItem())
+                .owner(archivedBooking.getOwner())
+                .status(archivedBooking.getStatus())
+                .build();
+    }
+
     public static DateBookingDto toDateBookingDto(Booking booking) {
         return DateBookingDto.builder()
                 .id(booking.getId())
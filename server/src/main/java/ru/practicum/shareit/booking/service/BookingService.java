@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.paging.Cursor;
 import java.util.List;
 
 public interface BookingService {
@@ -15,4 +18,20 @@ public interface BookingService {
     List<BookingOutputDto> getAllBookings(Long bookerId, BookingState state, Integer from, Integer sizee);
 
     List<BookingOutputDto> getAllBookingsForOwner(Long ownerId, BookingState state, Integer from, Integer size);
+
+    List<BookingOutputDto> getAllBookingsAfter(Long bookerId, BookingState state, Cursor after, Integer size);
+
+    List<BookingOutputDto> getAllBookingsForOwnerAfter(Long ownerId, BookingState state, Cursor after, Integer size);
+
+    List<BookingShortDto> getShortBookings(Long bookerId, BookingState state, Integer from, Integer size);
+
+    List<BookingShortDto> getShortBookingsForOwner(Long ownerId, BookingState state, Integer from, Integer size);
+
+    List<BookingShortDto> getShortBookingsAfter(Long bookerId, BookingState state, Cursor after, Integer size);
+
+    List<BookingShortDto> getShortBookingsForOwnerAfter(Long ownerId, BookingState state, Cursor after, Integer size);
+
+    BookingSummaryDto getSummary(Long bookerId);
+
+    BookingSummaryDto getOwnerSummary(Long ownerId);
 }
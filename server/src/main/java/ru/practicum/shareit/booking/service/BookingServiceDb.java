@@ -5,47 +5,81 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
-import ru.practicum.shareit.booking.dto.comparator.BookingComparator;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingCalendar;
+import ru.practicum.shareit.booking.storage.BookingListRepository;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.InvalidRequestException;
 import ru.practicum.shareit.exception.MissingObjectException;
 import ru.practicum.shareit.exception.OtherDataException;
-import ru.practicum.shareit.exception.UnknownStateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.BOOKER;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.OWNER;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.forList;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.userIs;
+
 @Service
 @Slf4j
 public class BookingServiceDb implements BookingService {
+    private static final Sort BOOKING_ORDER = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final Set<BookingState> ARCHIVED_STATES = EnumSet.of(BookingState.ALL, BookingState.PAST,
+            BookingState.WAITING, BookingState.REJECTED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingCalendar bookingCalendar;
+    private final UserExistenceIndex userExistenceIndex;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingListRepository bookingListRepository;
 
     @Autowired
-    public BookingServiceDb(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository) {
+    public BookingServiceDb(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository,
+                            BookingCalendar bookingCalendar, UserExistenceIndex userExistenceIndex,
+                            ArchivedBookingRepository archivedBookingRepository,
+                            BookingListRepository bookingListRepository) {
         this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.bookingListRepository = bookingListRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.bookingCalendar = bookingCalendar;
+        this.userExistenceIndex = userExistenceIndex;
     }
 
     @Override
+    @Transactional
     public BookingOutputDto createBooking(BookingInputDto bookingInputDto, Long userId) {
         isTheTimeCorrect(bookingInputDto);
 
-        Item item = getItem(bookingInputDto.getItemId());
+        Item item = getItemForUpdate(bookingInputDto.getItemId());
 
         if (!item.getAvailable()) {
             throw new InvalidRequestException("Вешь снята с аренды");
@@ -53,37 +87,46 @@ public class BookingServiceDb implements BookingService {
         if (userId.equals(item.getOwner().getId())) {
             throw new OtherDataException("Пользователь не может забронировать свою вещь");
         }
+        if (bookingRepository.existsOverlapping(item.getId(), bookingInputDto.getStart(), bookingInputDto.getEnd(),
+                BookingCalendar.ACTIVE_STATUSES)) {
+            throw new InvalidRequestException("Вещь уже забронирована на эти даты");
+        }
 
         User user = getUser(userId);
         BookingOutputDto bookingOutputDto = new BookingOutputDto(bookingInputDto, null, item, user, BookingStatus.WAITING);
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingOutputDto));
+        bookingCalendar.addBooking(item.getId(), booking.getStart(), booking.getEnd());
         log.info("Бронирование создано");
-        return BookingMapper.toBookingDto(bookingRepository.save(BookingMapper.toBooking(bookingOutputDto)));
+        return BookingMapper.toBookingDto(booking);
     }
 
+    /**
+     * Статус меняется одним условным UPDATE: из двух одновременных решений по одной брони проходит только первое,
+     * второе получает {@link ConflictException}. Причина отказа выясняется чтением брони уже после UPDATE.
+     */
     @Override
+    @Transactional
     public BookingOutputDto updateApprove(Long bookingId, Boolean approved, Long userId) {
-
-        Booking booking = getBooking(bookingId);
-        User user = getUser(userId);
-        User owner = booking.getItem().getOwner();
-        if (!user.equals(owner)) {
-            throw new OtherDataException("Статус бронирования может изменить только владелец");
+        userExistenceIndex.check(userId);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, userId, BookingStatus.WAITING, status) == 0) {
+            throw approveFailure(getBooking(bookingId), userId);
         }
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new InvalidRequestException("Статус бронирования можно изменить только во время его ожидания");
+        Booking booking = getBooking(bookingId);
+        if (!approved) {
+            bookingCalendar.evict(booking.getItem().getId());
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         log.info("Бронирование изменено");
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     public BookingOutputDto getBookingInfo(Long bookingId, Long userId) {
-        User user = getUser(userId);
-        Booking booking = getBooking(bookingId);
-        User owner = booking.getItem().getOwner();
-        User booker = booking.getBooker();
-        boolean canGetInfo = owner.equals(user) || booker.equals(user);
+        userExistenceIndex.check(userId);
+        Booking booking = getLiveOrArchivedBooking(bookingId);
+        Long ownerId = booking.getItem().getOwner().getId();
+        Long bookerId = booking.getBooker().getId();
+        boolean canGetInfo = ownerId.equals(userId) || bookerId.equals(userId);
         if (!canGetInfo) {
             throw new OtherDataException("Просматривать информацию о бронировании могут владелец или бронирующий");
         }
@@ -93,64 +136,137 @@ public class BookingServiceDb implements BookingService {
 
     @Override
     public List<BookingOutputDto> getAllBookings(Long bookerId, BookingState state, Integer from, Integer size) {
-        User booker = getUser(bookerId);
-        Pageable pageable = CustomPageRequest.create(from, size, Sort.by(Sort.Direction.DESC, "start"));
-
-        switch (state) {
-            case ALL:
-                return convertBookings(bookingRepository.findByBooker(booker, pageable));
-            case CURRENT:
-                return convertBookings(bookingRepository.findCurrentByBooker(booker, pageable));
-            case PAST:
-                return convertBookings(bookingRepository.findByBookerAndEndIsBefore(booker, LocalDateTime.now(), pageable));
-            case FUTURE:
-                return convertBookings(bookingRepository.findByBookerAndStartIsAfter(booker, LocalDateTime.now(), pageable));
-            case WAITING:
-                return convertBookings(bookingRepository.findByBookerAndStatus(booker, BookingStatus.WAITING, pageable));
-            case REJECTED:
-                return convertBookings(bookingRepository.findByBookerAndStatus(booker, BookingStatus.REJECTED, pageable));
-        }
-
-        throw new UnknownStateException("Unknown state: UNSUPPORTED_STATUS");
+        return getBookings(BOOKER, bookerId, state, null, CustomPageRequest.create(from, size, BOOKING_ORDER));
     }
 
     @Override
     public List<BookingOutputDto> getAllBookingsForOwner(Long ownerId, BookingState state, Integer from, Integer size) {
-        User owner = getUser(ownerId);
-        Pageable pageable = CustomPageRequest.create(from, size, Sort.by(Sort.Direction.DESC, "start"));
-
-        switch (state) {
-            case ALL:
-                return convertBookings(bookingRepository.findByOwner(owner, pageable));
-            case CURRENT:
-                return convertBookings(bookingRepository.findCurrentByOwner(owner, pageable));
-            case PAST:
-                return convertBookings(bookingRepository.findByOwnerAndEndIsBefore(owner, LocalDateTime.now(), pageable));
-            case FUTURE:
-                return convertBookings(bookingRepository.findByOwnerAndStartIsAfter(owner, LocalDateTime.now(), pageable));
-            case WAITING:
-                return convertBookings(bookingRepository.findByOwnerAndStatus(owner, BookingStatus.WAITING, pageable));
-            case REJECTED:
-                return convertBookings(bookingRepository.findByOwnerAndStatus(owner, BookingStatus.REJECTED, pageable));
+        return getBookings(OWNER, ownerId, state, null, CustomPageRequest.create(from, size, BOOKING_ORDER));
+    }
+
+    @Override
+    public List<BookingOutputDto> getAllBookingsAfter(Long bookerId, BookingState state, Cursor after, Integer size) {
+        return getBookings(BOOKER, bookerId, state, after, CustomPageRequest.createForCursor(size, BOOKING_ORDER));
+    }
+
+    @Override
+    public List<BookingOutputDto> getAllBookingsForOwnerAfter(Long ownerId, BookingState state, Cursor after, Integer size) {
+        return getBookings(OWNER, ownerId, state, after, CustomPageRequest.createForCursor(size, BOOKING_ORDER));
+    }
+
+    @Override
+    public List<BookingShortDto> getShortBookings(Long bookerId, BookingState state, Integer from, Integer size) {
+        return getShortBookings(BOOKER, bookerId, state, null, CustomPageRequest.create(from, size, BOOKING_ORDER));
+    }
+
+    @Override
+    public List<BookingShortDto> getShortBookingsForOwner(Long ownerId, BookingState state, Integer from, Integer size) {
+        return getShortBookings(OWNER, ownerId, state, null, CustomPageRequest.create(from, size, BOOKING_ORDER));
+    }
+
+    @Override
+    public List<BookingShortDto> getShortBookingsAfter(Long bookerId, BookingState state, Cursor after, Integer size) {
+        return getShortBookings(BOOKER, bookerId, state, after, CustomPageRequest.createForCursor(size, BOOKING_ORDER));
+    }
+
+    @Override
+    public List<BookingShortDto> getShortBookingsForOwnerAfter(Long ownerId, BookingState state, Cursor after, Integer size) {
+        return getShortBookings(OWNER, ownerId, state, after, CustomPageRequest.createForCursor(size, BOOKING_ORDER));
+    }
+
+    private List<BookingOutputDto> getBookings(String user, Long userId, BookingState state, Cursor after,
+                                               Pageable pageable) {
+        userExistenceIndex.check(userId);
+        LocalDateTime now = LocalDateTime.now();
+        Function<Pageable, List<BookingOutputDto>> live = p -> convertBookings(bookingListRepository.findAll(
+                Booking.class, Booking.FULL_GRAPH, forList(user, userId, state, now, after), p));
+        if (!ARCHIVED_STATES.contains(state)) {
+            return live.apply(pageable);
         }
+        return withArchive(pageable, live,
+                () -> bookingListRepository.count(Booking.class, forList(user, userId, state, now, after)),
+                p -> convertArchivedBookings(bookingListRepository.findAll(ArchivedBooking.class,
+                        ArchivedBooking.FULL_GRAPH, forList(user, userId, state, now, after), p)));
+    }
 
-        throw new UnknownStateException("Unknown state: UNSUPPORTED_STATUS");
+    private List<BookingShortDto> getShortBookings(String user, Long userId, BookingState state, Cursor after,
+                                                   Pageable pageable) {
+        userExistenceIndex.check(userId);
+        LocalDateTime now = LocalDateTime.now();
+        Function<Pageable, List<BookingShortDto>> live = p -> bookingListRepository.findShort(
+                Booking.class, forList(user, userId, state, now, after), p);
+        if (!ARCHIVED_STATES.contains(state)) {
+            return live.apply(pageable);
+        }
+        return withArchive(pageable, live,
+                () -> bookingListRepository.count(Booking.class, forList(user, userId, state, now, after)),
+                p -> bookingListRepository.findShort(ArchivedBooking.class, forList(user, userId, state, now, after), p));
     }
 
     private List<BookingOutputDto> convertBookings(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingDto)
-                .sorted(new BookingComparator().reversed())
                 .collect(Collectors.toList());
     }
 
+    private List<BookingOutputDto> convertArchivedBookings(List<ArchivedBooking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toBooking)
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Страница из bookings, дочитанная из архива, если она неполная. Архив целиком идет после bookings
+     * (см. {@link ru.practicum.shareit.booking.storage.BookingArchiver}), поэтому курсор применяется к нему как есть,
+     * а смещение в архиве - это смещение страницы минус число подходящих живых броней. Считать их нужно,
+     * только когда страница пустая и смещение ненулевое: иначе архив читается с начала.
+     */
+    private <T> List<T> withArchive(Pageable pageable, Function<Pageable, List<T>> live, LongSupplier liveCount,
+                                    Function<Pageable, List<T>> archived) {
+        List<T> page = live.apply(pageable);
+        int remaining = pageable.getPageSize() - page.size();
+        if (remaining == 0) {
+            return page;
+        }
+        long offset = page.isEmpty() && pageable.getOffset() > 0
+                ? Math.max(0, pageable.getOffset() - liveCount.getAsLong())
+                : 0;
+        List<T> result = new ArrayList<>(page);
+        result.addAll(archived.apply(CustomPageRequest.create((int) offset, remaining, pageable.getSort())));
+        return result;
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new MissingObjectException("Невозможно найти. Пользователь отсутствует!"));
     }
 
-    private Item getItem(Long itemId) {
-        return itemRepository.findById(itemId)
+    @Override
+    public BookingSummaryDto getSummary(Long bookerId) {
+        return getSummary(BOOKER, bookerId);
+    }
+
+    @Override
+    public BookingSummaryDto getOwnerSummary(Long ownerId) {
+        return getSummary(OWNER, ownerId);
+    }
+
+    private BookingSummaryDto getSummary(String user, Long userId) {
+        userExistenceIndex.check(userId);
+        LocalDateTime now = LocalDateTime.now();
+        BookingSummaryDto summary = bookingListRepository.summarize(Booking.class, userIs(user, userId), now);
+        BookingSummaryDto archived = bookingListRepository.summarize(ArchivedBooking.class, userIs(user, userId), now);
+        return new BookingSummaryDto(summary.getAll() + archived.getAll(),
+                summary.getCurrent() + archived.getCurrent(),
+                summary.getPast() + archived.getPast(),
+                summary.getFuture() + archived.getFuture(),
+                summary.getWaiting() + archived.getWaiting(),
+                summary.getRejected() + archived.getRejected());
+    }
+
+    private Item getItemForUpdate(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> new MissingObjectException("Невозможно найти. Вещь отсутствует!"));
     }
 
@@ -159,6 +275,19 @@ public class BookingServiceDb implements BookingService {
                 .orElseThrow(() -> new MissingObjectException("Невозможно найти. Бронь отсутствует!"));
     }
 
+    private RuntimeException approveFailure(Booking booking, Long userId) {
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return new OtherDataException("Статус бронирования может изменить только владелец");
+        }
+        return new ConflictException("Статус бронирования можно изменить только во время его ожидания");
+    }
+
+    private Booking getLiveOrArchivedBooking(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId).map(BookingMapper::toBooking))
+                .orElseThrow(() -> new MissingObjectException("Невозможно найти. Бронь отсутствует!"));
+    }
+
     private void isTheTimeCorrect(BookingInputDto bookingInputDto) {
         if (bookingInputDto.getStart().isBefore(LocalDateTime.now())
                 || bookingInputDto.getEnd().isBefore(LocalDateTime.now())) {
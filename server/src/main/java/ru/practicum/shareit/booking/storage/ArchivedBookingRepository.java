@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import ru.practicum.shareit.booking.dto.DateBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Override
+    @EntityGraph(ArchivedBooking.FULL_GRAPH)
+    Optional<ArchivedBooking> findById(Long id);
+
+    boolean existsByBookerIdAndItemId(Long bookerId, Long itemId);
+
+    @Query("select new ru.practicum.shareit.booking.dto.DateBookingDto(b.id, b.booker.id, b.start, b.end, b.item.id) " +
+            "from ArchivedBooking b " +
+            "where b.item.id in :itemIds " +
+            "and not exists (select b2.id from ArchivedBooking b2 where b2.item = b.item " +
+            "and (b2.end > b.end or (b2.end = b.end and b2.id > b.id)))")
+    List<DateBookingDto> findLastBookings(Collection<Long> itemIds);
+
+    /**
+     * Native DML без объявленных таблиц Hibernate считает затрагивающим все таблицы и очищает все регионы
+     * второго уровня кэша; подсказка ограничивает его таблицей bookings_archive.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "bookings_archive"))
+    @Query(value = "insert into bookings_archive (id, start_date, end_date, item_id, booker_id, owner_id, status) " +
+            "select id, start_date, end_date, item_id, booker_id, owner_id, status from bookings where id in :ids",
+            nativeQuery = true)
+    int copyFromBookings(Collection<Long> ids);
+}
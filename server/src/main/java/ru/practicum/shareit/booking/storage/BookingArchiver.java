@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит из bookings в bookings_archive брони любого статуса, начавшиеся раньше границы,
+ * пачками по batchSize, каждая пачка в своей транзакции. Граница не позже {@link BookingRetention#cutoff()}
+ * и не позже начала любой брони, закончившейся после cutoff, поэтому любая живая бронь начинается позже
+ * любой архивной: в порядке start desc, id desc архив целиком идет после bookings, и списки дочитывают его
+ * своим смещением или тем же курсором. Строки пачки блокируются (с SKIP LOCKED, если включен skip-locked),
+ * так что запуск на нескольких экземплярах не переносит одну бронь дважды.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingRetention bookingRetention;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean skipLocked;
+
+    public BookingArchiver(BookingRepository bookingRepository, ArchivedBookingRepository archivedBookingRepository,
+                           BookingRetention bookingRetention, TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking-archive.batch-size:500}") int batchSize,
+                           @Value("${shareit.booking-archive.skip-locked:true}") boolean skipLocked) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.bookingRetention = bookingRetention;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.skipLocked = skipLocked;
+    }
+
+    @Scheduled(cron = "${shareit.booking-archive.cron:0 0 3 * * *}")
+    public int archive() {
+        LocalDateTime watermark = watermark(bookingRetention.cutoff());
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(watermark));
+            archived += moved;
+        } while (moved == batchSize);
+        log.info("Перенесено в архив бронирований: {}", archived);
+        return archived;
+    }
+
+    private LocalDateTime watermark(LocalDateTime cutoff) {
+        LocalDateTime earliestStart = bookingRepository.findEarliestStartEndingFrom(cutoff);
+        return earliestStart != null && earliestStart.isBefore(cutoff) ? earliestStart : cutoff;
+    }
+
+    private int moveBatch(LocalDateTime watermark) {
+        List<Long> ids = skipLocked
+                ? bookingRepository.findIdsToArchiveSkipLocked(watermark, PageRequest.of(0, batchSize))
+                : bookingRepository.findIdsToArchive(watermark, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids);
+        bookingRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ru.practicum.shareit.booking.dto.DateBookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Занятые дни вещей: по одному битовому массиву на вещь, бит на каждый день, начиная с даты загрузки.
+ * Календарь вещи загружается из БД при первом запросе и дальше поддерживается бронированиями этого экземпляра
+ * без обращения к таблице bookings. Бронирования других экземпляров и смена даты отсчета видны после
+ * перезагрузки календаря, не позже чем через shareit.booking-calendar.expire-after-write.
+ */
+@Component
+public class BookingCalendar implements MeterBinder {
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemDays> calendars;
+
+    public BookingCalendar(BookingRepository bookingRepository,
+                           @Value("${shareit.booking-calendar.max-size:10000}") long maxSize,
+                           @Value("${shareit.booking-calendar.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public List<AvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        ItemDays days = calendars.getIfPresent(itemId);
+        if (days == null) {
+            ItemDays loaded = load(itemId);
+            days = calendars.asMap().putIfAbsent(itemId, loaded);
+            if (days == null) {
+                days = loaded;
+            }
+        }
+        return days.getRanges(from, to);
+    }
+
+    public void addBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> calendars.asMap().computeIfPresent(itemId, (id, days) -> days.add(start, end)));
+    }
+
+    public void evict(Long itemId) {
+        afterCommit(() -> calendars.invalidate(itemId));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, calendars, "bookingCalendar");
+    }
+
+    private ItemDays load(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemDays days = new ItemDays(now.toLocalDate());
+        for (DateBookingDto booking : bookingRepository.findActiveBookings(itemId, now, ACTIVE_STATUSES)) {
+            days.add(booking.getStart(), booking.getEnd());
+        }
+        return days;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class ItemDays {
+        private final LocalDate base;
+        private final BitSet busy = new BitSet();
+
+        private ItemDays(LocalDate base) {
+            this.base = base;
+        }
+
+        private synchronized ItemDays add(LocalDateTime start, LocalDateTime end) {
+            int from = Math.max(0, index(start.toLocalDate()));
+            int to = index(end.minusNanos(1).toLocalDate());
+            if (to >= from) {
+                busy.set(from, to + 1);
+            }
+            return this;
+        }
+
+        private synchronized List<AvailabilityDto> getRanges(LocalDate from, LocalDate to) {
+            List<AvailabilityDto> ranges = new ArrayList<>();
+            LocalDate rangeStart = from;
+            boolean rangeAvailable = isAvailable(from);
+            for (LocalDate day = from.plusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+                boolean available = isAvailable(day);
+                if (available != rangeAvailable) {
+                    ranges.add(new AvailabilityDto(rangeStart, day.minusDays(1), rangeAvailable));
+                    rangeStart = day;
+                    rangeAvailable = available;
+                }
+            }
+            ranges.add(new AvailabilityDto(rangeStart, to, rangeAvailable));
+            return ranges;
+        }
+
+        private boolean isAvailable(LocalDate day) {
+            int index = index(day);
+            return index < 0 || !busy.get(index);
+        }
+
+        private int index(LocalDate day) {
+            return (int) ChronoUnit.DAYS.between(base, day);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.state.BookingState;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Страницы бронирований по {@link BookingSpecifications} для любой из сущностей Booking и ArchivedBooking:
+ * полный вид с графом сущности, краткий вид BookingShortDto одной проекцией, число строк и сводка по состояниям.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingListRepository {
+    private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    public <T> List<T> findAll(Class<T> type, String graph, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        query.select(root);
+        where(query, root, cb, spec);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return page(entityManager.createQuery(query).setHint(FETCH_GRAPH, entityManager.getEntityGraph(graph)),
+                pageable);
+    }
+
+    public <T> List<BookingShortDto> findShort(Class<T> type, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingShortDto> query = cb.createQuery(BookingShortDto.class);
+        Root<T> root = query.from(type);
+        Join<T, ?> item = root.join("item");
+        Join<T, ?> booker = root.join("booker");
+        query.select(cb.construct(BookingShortDto.class, root.get("id"), root.get("start"), root.get("end"),
+                root.get("status"), item.get("id"), item.get("name"), booker.get("id"), booker.get("name")));
+        where(query, root, cb, spec);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return page(entityManager.createQuery(query), pageable);
+    }
+
+    public <T> long count(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        where(query, root, cb, spec);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Счетчики сводки одним агрегатом; CURRENT, PAST, FUTURE, WAITING и REJECTED считаются по тем же условиям,
+     * что и списки в этих состояниях.
+     */
+    public <T> BookingSummaryDto summarize(Class<T> type, Specification<T> spec, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingSummaryDto> query = cb.createQuery(BookingSummaryDto.class);
+        Root<T> root = query.from(type);
+        query.select(cb.construct(BookingSummaryDto.class, cb.count(root),
+                countIn(BookingState.CURRENT, now, query, root, cb),
+                countIn(BookingState.PAST, now, query, root, cb),
+                countIn(BookingState.FUTURE, now, query, root, cb),
+                countIn(BookingState.WAITING, now, query, root, cb),
+                countIn(BookingState.REJECTED, now, query, root, cb)));
+        where(query, root, cb, spec);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private <T> Expression<Long> countIn(BookingState state, LocalDateTime now, CriteriaQuery<?> query, Root<T> root,
+                                         CriteriaBuilder cb) {
+        Predicate predicate = BookingSpecifications.<T>inState(state, now).toPredicate(root, query, cb);
+        return cb.coalesce(cb.sum(cb.<Long>selectCase().when(predicate, 1L).otherwise(0L)), 0L);
+    }
+
+    private <T> void where(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder cb, Specification<T> spec) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private <R> List<R> page(TypedQuery<R> query, Pageable pageable) {
+        return query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
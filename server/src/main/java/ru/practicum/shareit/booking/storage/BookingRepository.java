@@ -1,50 +1,89 @@
 package ru.practicum.shareit.booking.storage;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import ru.practicum.shareit.booking.dto.DateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String SKIP_LOCKED = "-2";
+    String TO_ARCHIVE = "select b.id from Booking b where b.start < :watermark";
 
-    List<Booking> findByBooker(User booker, Pageable pageable);
-
-    List<Booking> findByBookerAndEndIsBefore(User booker, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByBookerAndStartIsAfter(User booker, LocalDateTime start, Pageable pageable);
-
-    @Query("select b from Booking b where b.booker = :booker and b.start <= current_timestamp and b.end >= current_timestamp")
-    List<Booking> findCurrentByBooker(User booker, Pageable pageable);
-
-    List<Booking> findByBookerAndStatus(User booker, BookingStatus status, Pageable pageable);
+    @Override
+    @EntityGraph(Booking.FULL_GRAPH)
+    Optional<Booking> findById(Long id);
 
     List<Booking> findByBookerAndItem(User booker, Item item);
 
-    @Query("select b from Booking b, Item i where b.item = i and i.owner = :owner")
-    List<Booking> findByOwner(User owner, Pageable pageable);
-
-    @Query("select b from Booking b, Item i where b.item = i and i.owner = :owner and b.end <= :end")
-    List<Booking> findByOwnerAndEndIsBefore(User owner, LocalDateTime end, Pageable pageable);
-
-    @Query("select b from Booking b, Item i where b.item = i and i.owner = :owner and b.start >= :start")
-    List<Booking> findByOwnerAndStartIsAfter(User owner, LocalDateTime start, Pageable pageable);
-
-    @Query("select b from Booking b, Item i where b.item = i and i.owner = :owner and b.start <= current_timestamp and b.end >= current_timestamp")
-    List<Booking> findCurrentByOwner(User owner, Pageable pageable);
-
-    @Query("select b from Booking b, Item i where b.item = i and i.owner = :owner and b.status = :status")
-    List<Booking> findByOwnerAndStatus(User owner, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemAndEndIsBefore(Item item, LocalDateTime end);
-
-    List<Booking> findByItemAndStartIsAfter(Item item, LocalDateTime start);
-
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.end > :start and b.start < :end and b.status in :statuses")
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end, Collection<BookingStatus> statuses);
+
+    @Query("select new ru.practicum.shareit.booking.dto.DateBookingDto(b.id, b.booker.id, b.start, b.end, b.item.id) " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.end < :now " +
+            "and not exists (select b2.id from Booking b2 where b2.item = b.item and b2.end < :now " +
+            "and (b2.end > b.end or (b2.end = b.end and b2.id > b.id)))")
+    List<DateBookingDto> findLastBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.dto.DateBookingDto(b.id, b.booker.id, b.start, b.end, b.item.id) " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.start > :now " +
+            "and not exists (select b2.id from Booking b2 where b2.item = b.item and b2.start > :now " +
+            "and (b2.start < b.start or (b2.start = b.start and b2.id < b.id)))")
+    List<DateBookingDto> findNextBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Modifying
+    @Query("update Booking b set b.status = :status " +
+            "where b.id = :bookingId and b.owner.id = :ownerId and b.status = :expected")
+    int updateStatus(Long bookingId, Long ownerId, BookingStatus expected, BookingStatus status);
+
+    /**
+     * Самое раннее начало среди броней, закончившихся не раньше cutoff; null, если таких нет.
+     */
+    @Query("select min(b.start) from Booking b where b.end >= :cutoff")
+    LocalDateTime findEarliestStartEndingFrom(LocalDateTime cutoff);
+
+    /**
+     * Пачка id броней, начавшихся раньше watermark; строки блокируются до конца транзакции,
+     * так что параллельный архиватор ждет ее и уже перенесенные брони не видит.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(TO_ARCHIVE)
+    List<Long> findIdsToArchive(LocalDateTime watermark, Pageable pageable);
+
+    /**
+     * То же, но строки, заблокированные другим архиватором, пропускаются (SKIP LOCKED), и экземпляры
+     * переносят разные пачки параллельно. H2 2.1 SKIP LOCKED не поддерживает.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query(TO_ARCHIVE)
+    List<Long> findIdsToArchiveSkipLocked(LocalDateTime watermark, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Booking b where b.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.booking.dto.DateBookingDto(b.id, b.booker.id, b.start, b.end, b.item.id) " +
+            "from Booking b " +
+            "where b.item.id = :itemId and b.end > :now and b.status in :statuses")
+    List<DateBookingDto> findActiveBookings(Long itemId, LocalDateTime now, Collection<BookingStatus> statuses);
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Срок хранения бронирований в bookings. Брони в bookings_archive закончились раньше {@link #cutoff()}
+ * на момент переноса, поэтому живая бронь, закончившаяся не раньше границы, новее любой архивной.
+ */
+@Component
+public class BookingRetention {
+    private final Duration retention;
+
+    public BookingRetention(@Value("${shareit.booking-archive.retention:180d}") Duration retention) {
+        this.retention = retention;
+    }
+
+    public LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(retention);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.exception.UnknownStateException;
+import ru.practicum.shareit.paging.Cursor;
+import java.time.LocalDateTime;
+
+/**
+ * Условия списков бронирований. Атрибуты Booking и ArchivedBooking называются одинаково,
+ * поэтому одно и то же условие применяется к обеим таблицам, к полному и краткому виду, к from/size и к курсору.
+ */
+public final class BookingSpecifications {
+    public static final String BOOKER = "booker";
+    public static final String OWNER = "owner";
+
+    private BookingSpecifications() {
+    }
+
+    /**
+     * Брони пользователя в роли user ({@link #BOOKER} или {@link #OWNER}) в состоянии state,
+     * начиная после курсора after, если он задан.
+     */
+    public static <T> Specification<T> forList(String user, Long userId, BookingState state, LocalDateTime now,
+                                               Cursor after) {
+        return Specification.<T>where(userIs(user, userId))
+                .and(inState(state, now))
+                .and(after != null ? after(after) : null);
+    }
+
+    public static <T> Specification<T> userIs(String user, Long userId) {
+        return (root, query, cb) -> cb.equal(root.get(user).get("id"), userId);
+    }
+
+    public static <T> Specification<T> inState(BookingState state, LocalDateTime now) {
+        return (root, query, cb) -> {
+            switch (state) {
+                case ALL:
+                    return null;
+                case CURRENT:
+                    return cb.and(cb.lessThanOrEqualTo(root.get("start"), now),
+                            cb.greaterThanOrEqualTo(root.get("end"), now));
+                case PAST:
+                    return cb.lessThan(root.get("end"), now);
+                case FUTURE:
+                    return cb.greaterThan(root.get("start"), now);
+                case WAITING:
+                    return cb.equal(root.get("status"), BookingStatus.WAITING);
+                case REJECTED:
+                    return cb.equal(root.get("status"), BookingStatus.REJECTED);
+            }
+            throw new UnknownStateException("Unknown state: UNSUPPORTED_STATUS");
+        };
+    }
+
+    public static <T> Specification<T> after(Cursor cursor) {
+        return (root, query, cb) -> cb.or(cb.lessThan(root.get("start"), cursor.getTimestamp()),
+                cb.and(cb.equal(root.get("start"), cursor.getTimestamp()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
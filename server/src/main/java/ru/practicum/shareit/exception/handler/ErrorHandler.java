@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.InvalidRequestException;
 import ru.practicum.shareit.exception.MissingObjectException;
@@ -49,6 +50,13 @@ public class ErrorHandler {
         return Map.of("error", e.getMessage());
     }
 
+    @ExceptionHandler()
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handle(final ConflictException e) {
+        log.warn(e.getMessage());
+        return Map.of("error", e.getMessage());
+    }
+
     @ExceptionHandler()
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handle(final InvalidRequestException e) {
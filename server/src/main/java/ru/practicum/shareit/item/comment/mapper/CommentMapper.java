@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.comment.mapper;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -15,6 +16,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto toCommentDto(ItemCommentDto comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static Comment toComment(CommentDto commentDto, User author, Item item) {
         return Comment.builder()
                 .author(author)
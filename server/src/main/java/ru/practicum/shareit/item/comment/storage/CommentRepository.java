@@ -1,12 +1,24 @@
 package ru.practicum.shareit.item.comment.storage;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemId(Long itemId);
+
+    @Query("select new ru.practicum.shareit.item.comment.dto.ItemCommentDto(" +
+            "c.item.id, c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.item.id in ?1 " +
+            "order by c.id")
+    List<ItemCommentDto> findDtoByItemIdIn(Collection<Long> itemIds);
 }
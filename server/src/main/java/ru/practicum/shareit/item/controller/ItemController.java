@@ -2,14 +2,19 @@ package ru.practicum.shareit.item.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExpand;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.CommentService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -36,14 +41,35 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> getItemByText(@RequestParam String text,
                                        @RequestParam(required = false) Integer from,
-                                       @RequestParam(required = false) Integer size) {
-        return itemService.getItemByText(text, from, size);
+                                       @RequestParam(required = false) Integer size,
+                                       @RequestParam(required = false) String expand) {
+        ItemExpand itemExpand = ItemExpand.from(expand);
+        List<ItemDto> items = itemService.getItemByText(text, from, size);
+        return itemExpand == ItemExpand.OWNER ? itemService.expandOwners(items) : items;
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> getSuggestions(@RequestParam String prefix,
+                                                  @RequestParam(defaultValue = "10") Integer limit) {
+        return itemService.getSuggestions(prefix, limit);
     }
 
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-                               @PathVariable Long itemId) {
-        return itemService.getItemById(itemId, userId);
+                               @PathVariable Long itemId,
+                               @RequestParam(required = false) String expand) {
+        ItemExpand itemExpand = ItemExpand.from(expand);
+        ItemDto item = itemService.getItemById(itemId, userId);
+        return itemExpand == ItemExpand.OWNER ? itemService.expandOwners(List.of(item)).get(0) : item;
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityDto> getAvailability(@PathVariable Long itemId,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping
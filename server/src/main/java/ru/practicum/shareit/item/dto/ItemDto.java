@@ -1,27 +1,39 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.DateBookingDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ItemDto {
     private Long id;
     private String name;
     private String description;
     private Boolean available;
     private Long requestId;
-    private User owner;
+    private Long ownerId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserDto owner;
     private List<CommentDto> comments;
     private DateBookingDto lastBooking;
     private DateBookingDto nextBooking;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId, Long ownerId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+        this.ownerId = ownerId;
+    }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.exception.InvalidRequestException;
+
+public enum ItemExpand {
+    NONE, OWNER;
+
+    public static ItemExpand from(String expand) {
+        if (expand == null || expand.isBlank()) {
+            return NONE;
+        }
+        for (ItemExpand value : values()) {
+            if (value.name().equalsIgnoreCase(expand)) {
+                return value;
+            }
+        }
+        throw new InvalidRequestException("Unknown expand: " + expand);
+    }
+}
@@ -6,6 +6,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import java.util.List;
 
 public class ItemMapper {
@@ -22,7 +24,7 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
+                .ownerId(item.getOwner().getId())
                 .requestId(requestId)
                 .comments(comments)
                 .lastBooking(lastBooking)
@@ -39,7 +41,7 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(requestId)
-                .owner(item.getOwner())
+                .ownerId(item.getOwner().getId())
                 .build();
     }
 
@@ -51,19 +53,38 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
+                .ownerId(item.getOwner().getId())
                 .requestId(requestId)
                 .comments(comments)
                 .build();
     }
 
-    public static Item toItem(ItemDto itemDto, ItemRequest request) {
+    public static ItemDto toItemDto(
+            ItemDto item,
+            List<CommentDto> comments,
+            DateBookingDto lastBooking,
+            DateBookingDto nextBooking
+    ) {
+        return item.toBuilder()
+                .comments(comments)
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .build();
+    }
+
+    public static ItemDto withOwner(ItemDto item, UserDto owner) {
+        return item.toBuilder()
+                .owner(owner)
+                .build();
+    }
+
+    public static Item toItem(ItemDto itemDto, User owner, ItemRequest request) {
         return Item.builder()
                 .id(itemDto.getId())
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
-                .owner(itemDto.getOwner())
+                .owner(owner)
                 .request(request)
                 .build();
     }
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ItemService {
@@ -10,7 +13,13 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    List<ItemDto> expandOwners(List<ItemDto> items);
+
     ItemDto creatItem(Long userId, ItemDto itemDto);
 
     ItemDto updateItem(Long userId, ItemDto itemDto, Long itemId);
+
+    List<AvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to);
+
+    List<ItemSuggestionDto> getSuggestions(String prefix, Integer limit);
 }
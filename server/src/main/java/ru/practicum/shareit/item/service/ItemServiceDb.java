@@ -3,82 +3,128 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import ru.practicum.shareit.booking.dto.DateBookingDto;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingCalendar;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingRetention;
 import ru.practicum.shareit.exception.InvalidRequestException;
 import ru.practicum.shareit.exception.MissingObjectException;
 import ru.practicum.shareit.exception.OtherDataException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.storage.CommentRepository;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemNameIndex;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceDb implements ItemService, CommentService {
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+    private static final int MAX_AVAILABILITY_DAYS = 365;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository requestRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemNameIndex itemNameIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final UserExistenceIndex userExistenceIndex;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingRetention bookingRetention;
 
     @Override
     public List<ItemDto> getItemsByUser(Long userId, Integer from, Integer size) {
         log.info("Получен запрос на список вещей по хозяину");
-        Pageable pageable = CustomPageRequest.create(from, size, Sort.by(Sort.Direction.ASC, "id"));
-        return itemRepository.findByOwner(getUser(userId), pageable).stream()
-                .map(item -> fillItemDto(item, userId))
-                .sorted(Comparator.comparing(ItemDto::getId))
-                .collect(Collectors.toList());
+        Pageable pageable = CustomPageRequest.create(from, size);
+        userExistenceIndex.check(userId);
+        return fillItemDtos(itemRepository.findDtoByOwnerId(userId, pageable), userId);
     }
 
     @Override
     public List<ItemDto> getItemByText(String text, Integer from, Integer size) {
         log.info("Получен запрос на поиск вещи по названию или описанию");
-        Pageable pageable = CustomPageRequest.create(from, size, Sort.by(Sort.Direction.ASC, "id"));
+        Pageable pageable = CustomPageRequest.create(from, size);
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        return itemRepository.search(text.toLowerCase(),pageable).stream()
-                .filter(Item::getAvailable)
-                .map(item -> ItemMapper.toItemDto(item, getComments(item.getId())))
-                .collect(Collectors.toList());
+        return itemSearchCache.get(text, from, size, normalized -> {
+            List<ItemDto> items = itemRepository.search(normalized, pageable);
+            if (items.isEmpty()) {
+                return new ArrayList<>();
+            }
+            Map<Long, List<CommentDto>> comments = getComments(items);
+            return items.stream()
+                    .map(item -> ItemMapper.toItemDto(item,
+                            comments.getOrDefault(item.getId(), new ArrayList<>()), null, null))
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
         log.info("Получен запрос на получение вещи");
-        Item item = getItem(itemId);
-        return fillItemDto(item,userId);
+        ItemDto item = itemRepository.findDtoById(itemId)
+                .orElseThrow(() -> new MissingObjectException("Невозможно найти. вещь отсутствует!"));
+        return fillItemDtos(List.of(item), userId).get(0);
+    }
+
+    @Override
+    public List<ItemDto> expandOwners(List<ItemDto> items) {
+        Set<Long> ownerIds = items.stream()
+                .map(ItemDto::getOwnerId)
+                .collect(Collectors.toSet());
+        if (ownerIds.isEmpty()) {
+            return items;
+        }
+        Map<Long, UserDto> owners = userRepository.findAllById(ownerIds).stream()
+                .collect(Collectors.toMap(User::getId, UserMapper::toUserDto));
+        return items.stream()
+                .map(item -> ItemMapper.withOwner(item, owners.get(item.getOwnerId())))
+                .collect(Collectors.toList());
     }
 
     @Override
     public ItemDto creatItem(Long userId, ItemDto itemDto) {
         log.info("Получен запрос на добавление вещи");
-        itemDto.setOwner(getUser(userId));
+        User owner = getUser(userId);
         Long requestId = itemDto.getRequestId();
         ItemRequest request = requestId != null ? getRequest(requestId) : null;
-        return ItemMapper.toItemDto(itemRepository.save(ItemMapper.toItem(itemDto, request)));
+        Item item = itemRepository.save(ItemMapper.toItem(itemDto, owner, request));
+        itemNameIndex.update(item);
+        itemSearchCache.evictMatching(item.getName(), item.getDescription());
+        return ItemMapper.toItemDto(item);
     }
 
     @Override
@@ -90,6 +136,8 @@ public class ItemServiceDb implements ItemService, CommentService {
         if (!user.equals(itemRepository.getItemOwner(itemId))) {
             throw new OtherDataException("Редактировать может только владелец");
         }
+        String oldName = item.getName();
+        String oldDescription = item.getDescription();
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -99,10 +147,43 @@ public class ItemServiceDb implements ItemService, CommentService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        return ItemMapper.toItemDto(itemRepository.save(item),comments);
+        List<CommentDto> comments = getComments(itemId);
+        Item updated = itemRepository.save(item);
+        itemNameIndex.update(updated);
+        itemSearchCache.evictMatching(oldName, oldDescription, updated.getName(), updated.getDescription());
+        return ItemMapper.toItemDto(updated, comments);
+    }
+
+    @Override
+    public List<AvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        log.info("Получен запрос на календарь доступности вещи");
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        if (start.isBefore(LocalDate.now())) {
+            throw new InvalidRequestException("Начало периода не может быть в прошлом");
+        }
+        if (end.isBefore(start)) {
+            throw new InvalidRequestException("Конец периода не может быть раньше начала");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_AVAILABILITY_DAYS) {
+            throw new InvalidRequestException("Период не может быть длиннее " + MAX_AVAILABILITY_DAYS + " дней");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new MissingObjectException("Невозможно найти. вещь отсутствует!");
+        }
+        return bookingCalendar.getAvailability(itemId, start, end);
+    }
+
+    @Override
+    public List<ItemSuggestionDto> getSuggestions(String prefix, Integer limit) {
+        log.info("Получен запрос на подсказки по названию вещи");
+        if (limit <= 0 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        return itemNameIndex.suggest(prefix, limit);
     }
 
     @Override
@@ -115,13 +196,16 @@ public class ItemServiceDb implements ItemService, CommentService {
         }
         commentDto.setCreated(LocalDateTime.now());
         Comment comment = CommentMapper.toComment(commentDto, author, item);
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto saved = CommentMapper.toCommentDto(commentRepository.save(comment));
+        itemSearchCache.evictContaining(itemId);
+        return saved;
     }
 
     private boolean isBooker(Item item, User user) {
         return bookingRepository.findByBookerAndItem(user, item)
                 .stream()
-                .anyMatch((booking) -> booking.getEnd().isBefore(LocalDateTime.now()));
+                .anyMatch((booking) -> booking.getEnd().isBefore(LocalDateTime.now()))
+                || archivedBookingRepository.existsByBookerIdAndItemId(user.getId(), item.getId());
     }
 
     private User getUser(Long userId) {
@@ -138,11 +222,31 @@ public class ItemServiceDb implements ItemService, CommentService {
         return requestRepository.findById(id).orElse(null);
     }
 
-    private ItemDto fillItemDto(Item item, Long userId) {
-        return ItemMapper.toItemDto(item,
-                getComments(item.getId()),
-                getLastBooking(item, userId),
-                getNextBooking(item, userId));
+    private List<ItemDto> fillItemDtos(List<ItemDto> items, Long userId) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> item.getOwnerId().equals(userId))
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = getComments(items);
+        Map<Long, DateBookingDto> lastBookings = new HashMap<>();
+        Map<Long, DateBookingDto> nextBookings = new HashMap<>();
+        if (!ownItemIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBookings = groupByItem(bookingRepository.findLastBookings(ownItemIds, now));
+            addArchivedLastBookings(ownItemIds, lastBookings);
+            nextBookings = groupByItem(bookingRepository.findNextBookings(ownItemIds, now));
+        }
+        List<ItemDto> result = new ArrayList<>();
+        for (ItemDto item : items) {
+            result.add(ItemMapper.toItemDto(item,
+                    comments.getOrDefault(item.getId(), new ArrayList<>()),
+                    lastBookings.get(item.getId()),
+                    nextBookings.get(item.getId())));
+        }
+        return result;
     }
 
     private List<CommentDto> getComments(Long itemId) {
@@ -151,25 +255,32 @@ public class ItemServiceDb implements ItemService, CommentService {
                 .collect(Collectors.toList());
     }
 
-    private DateBookingDto getLastBooking(Item item, Long userId) {
-        if (!item.getOwner().getId().equals(userId)) {
-            return null;
-        }
-        List<Booking> bookings = bookingRepository.findByItemAndEndIsBefore(item, LocalDateTime.now());
-        if (bookings.isEmpty()) {
-            return null;
-        }
-        return BookingMapper.toDateBookingDto(bookings.get(bookings.size() - 1));
+    private Map<Long, List<CommentDto>> getComments(List<ItemDto> items) {
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        return commentRepository.findDtoByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(ItemCommentDto::getItemId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
     }
 
-    private DateBookingDto getNextBooking(Item item, Long userId) {
-        if (!item.getOwner().getId().equals(userId)) {
-            return null;
+    private void addArchivedLastBookings(List<Long> itemIds, Map<Long, DateBookingDto> lastBookings) {
+        LocalDateTime cutoff = bookingRetention.cutoff();
+        List<Long> reachingArchive = itemIds.stream()
+                .filter(itemId -> !lastBookings.containsKey(itemId)
+                        || lastBookings.get(itemId).getEnd().isBefore(cutoff))
+                .collect(Collectors.toList());
+        if (reachingArchive.isEmpty()) {
+            return;
         }
-        List<Booking> bookings = bookingRepository.findByItemAndStartIsAfter(item, LocalDateTime.now());
-        if (bookings.isEmpty()) {
-            return null;
+        for (DateBookingDto booking : archivedBookingRepository.findLastBookings(reachingArchive)) {
+            lastBookings.merge(booking.getItemId(), booking,
+                    (live, archived) -> live.getEnd().isBefore(archived.getEnd()) ? archived : live);
         }
-        return BookingMapper.toDateBookingDto(bookings.get(0));
+    }
+
+    private Map<Long, DateBookingDto> groupByItem(List<DateBookingDto> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(DateBookingDto::getItemId, booking -> booking));
     }
 }
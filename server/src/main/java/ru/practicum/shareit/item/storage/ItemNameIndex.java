@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Названия доступных вещей, отсортированные в нижнем регистре, для подсказок по префиксу.
+ * Загружается из БД при первом запросе, дальше обновляется при создании и изменении вещей этого экземпляра.
+ * Изменения других экземпляров видны после перезагрузки: индекс строится заново при запросе, если с загрузки
+ * прошло shareit.item-name-index.reload-after. До конца перезагрузки подсказки идут из прежнего индекса.
+ */
+@Component
+public class ItemNameIndex {
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final long reloadAfterNanos;
+    private volatile NavigableMap<String, ItemSuggestionDto> names = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, String> keys = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    public ItemNameIndex(ItemRepository itemRepository,
+                         @Value("${shareit.item-name-index.reload-after:10m}") Duration reloadAfter) {
+        this.itemRepository = itemRepository;
+        this.reloadAfterNanos = reloadAfter.toNanos();
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        load();
+        String from = prefix.toLowerCase();
+        List<ItemSuggestionDto> result = new ArrayList<>(limit);
+        for (Map.Entry<String, ItemSuggestionDto> entry : names.tailMap(from).entrySet()) {
+            if (result.size() == limit || !entry.getKey().startsWith(from)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    public synchronized void update(Item item) {
+        if (!loaded) {
+            return;
+        }
+        remove(item.getId());
+        if (item.getAvailable()) {
+            add(new ItemSuggestionDto(item.getId(), item.getName()));
+        }
+    }
+
+    public synchronized void reset() {
+        loaded = false;
+        names.clear();
+        keys.clear();
+    }
+
+    private void load() {
+        if (isFresh()) {
+            return;
+        }
+        synchronized (this) {
+            if (!isFresh()) {
+                NavigableMap<String, ItemSuggestionDto> loadedNames = new ConcurrentSkipListMap<>();
+                Map<Long, String> loadedKeys = new ConcurrentHashMap<>();
+                itemRepository.findAvailableNames().forEach(item -> add(loadedNames, loadedKeys, item));
+                names = loadedNames;
+                keys = loadedKeys;
+                loadedAt = System.nanoTime();
+                loaded = true;
+            }
+        }
+    }
+
+    private boolean isFresh() {
+        return loaded && System.nanoTime() - loadedAt < reloadAfterNanos;
+    }
+
+    private void add(ItemSuggestionDto item) {
+        add(names, keys, item);
+    }
+
+    private static void add(NavigableMap<String, ItemSuggestionDto> names, Map<Long, String> keys,
+                            ItemSuggestionDto item) {
+        String key = item.getName().toLowerCase() + ID_SEPARATOR + item.getId();
+        names.put(key, item);
+        keys.put(item.getId(), key);
+    }
+
+    private void remove(Long itemId) {
+        String key = keys.remove(itemId);
+        if (key != null) {
+            names.remove(key);
+        }
+    }
+}
@@ -2,26 +2,52 @@ package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwner(User owner, Pageable pageable);
+    String DTO_VIEW = "select new ru.practicum.shareit.item.dto.ItemDto(" +
+            "i.id, i.name, i.description, i.available, r.id, i.owner.id) " +
+            "from Item i left join i.request r ";
+
+    @Query(DTO_VIEW + "where i.owner.id = ?1 order by i.id")
+    List<ItemDto> findDtoByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(DTO_VIEW + "where i.id = ?1")
+    Optional<ItemDto> findDtoById(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
 
     @Query("select i.owner from Item i where i.id = ?1")
     User getItemOwner(Long itemId);
 
-    @Query("select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "   or upper(i.description) like upper(concat('%', ?1, '%'))")
-    List<Item> search(@Param("text") String text,Pageable pageable);
+    @Query(DTO_VIEW +
+            "where i.available = true " +
+            "  and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "   or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<ItemDto> search(@Param("text") String text, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemForRequestDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "from Item i " +
+            "where i.request.id in :requestIds")
+    List<ItemForRequestDto> findAnswers(Collection<Long> requestIds);
 
-    List<Item> findByRequest(ItemRequest itemRequest);
+    @Query("select new ru.practicum.shareit.item.dto.ItemSuggestionDto(i.id, i.name) from Item i where i.available = true")
+    List<ItemSuggestionDto> findAvailableNames();
 }
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Результаты текстового поиска вещей по нормализованному тексту и странице.
+ * Текст приводится к верхнему регистру в {@link Locale#ROOT}, как его сравнивает upper(...) like в поиске,
+ * и передается в поиск, поэтому одинаковые ключи всегда означают одинаковый запрос к БД.
+ * Изменение вещи сбрасывает записи, текст которых входит в ее название или описание до или после изменения,
+ * новый отзыв - записи с этой вещью. Записи с текстом, регистр которого неоднозначен, сбрасываются при любом
+ * изменении вещи.
+ * Результат поиска, который шел во время сброса, отбрасывается: он мог прочитать вещь до изменения.
+ */
+@Component
+public class ItemSearchCache implements MeterBinder {
+    private final Cache<SearchKey, List<ItemDto>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.search-cache.max-size:1000}") long maxSize,
+                           @Value("${shareit.search-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public List<ItemDto> get(String text, Integer from, Integer size, Function<String, List<ItemDto>> search) {
+        SearchKey key = new SearchKey(normalize(text), from, size);
+        List<ItemDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        List<ItemDto> items = List.copyOf(search.apply(key.getText()));
+        cache.put(key, items);
+        if (generation.get() != loadGeneration) {
+            cache.asMap().remove(key, items);
+        }
+        return items;
+    }
+
+    public void evictContaining(Long itemId) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(items -> items.stream().anyMatch(item -> item.getId().equals(itemId)));
+    }
+
+    public void evictMatching(String... texts) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> matches(key.getText(), texts));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "itemSearch");
+    }
+
+    private String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean matches(String term, String... texts) {
+        if (isAmbiguous(term)) {
+            return true;
+        }
+        for (String text : texts) {
+            if (text != null && text.toUpperCase(Locale.ROOT).contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Неоднозначен текст, который меняется при повторном приведении регистра или при посимвольном upper,
+     * как у ẞ: БД может привести такой текст иначе, чем {@link String#toUpperCase(Locale)}.
+     */
+    private static boolean isAmbiguous(String term) {
+        return !term.toLowerCase(Locale.ROOT).toUpperCase(Locale.ROOT).equals(term)
+                || !term.equals(upperEachChar(term));
+    }
+
+    private static String upperEachChar(String text) {
+        StringBuilder upper = new StringBuilder(text.length());
+        text.codePoints().forEach(codePoint -> upper.appendCodePoint(Character.toUpperCase(codePoint)));
+        return upper.toString();
+    }
+
+    @Data
+    private static class SearchKey {
+        private final String text;
+        private final Integer from;
+        private final Integer size;
+    }
+}
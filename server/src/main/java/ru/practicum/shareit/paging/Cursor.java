@@ -0,0 +1,58 @@
+package ru.practicum.shareit.paging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Позиция в списке, отсортированном по убыванию (время, id).
+ * Следующая страница начинается со строк строго после этой позиции, поэтому
+ * стоимость страницы не зависит от ее номера, а новые записи не сдвигают страницы.
+ */
+@Data
+@AllArgsConstructor
+public class Cursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    /**
+     * Заголовки ответа со ссылкой на следующую страницу; пустые, если страница неполная и продолжения нет.
+     */
+    public static <T> HttpHeaders nextPageHeaders(List<T> page, Integer size,
+                                                  Function<T, LocalDateTime> timestamp, Function<T, Long> id) {
+        HttpHeaders headers = new HttpHeaders();
+        if (size != null && !page.isEmpty() && page.size() >= size) {
+            T last = page.get(page.size() - 1);
+            headers.set(NEXT_CURSOR_HEADER, new Cursor(timestamp.apply(last), id.apply(last)).encode());
+        }
+        return headers;
+    }
+
+    public String encode() {
+        String value = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestException("after must be a cursor from " + NEXT_CURSOR_HEADER);
+        }
+    }
+}
@@ -67,6 +67,12 @@ public class CustomPageRequest extends PageRequest {
         return new CustomPageRequest(offset, size, sort);
     }
 
+    public static Pageable createForCursor(Integer size, Sort sort) {
+        if (size == null) throw new InvalidRequestException("must provide size with after");
+        validatePaging(0, size);
+        return new CustomPageRequest(0, size, sort);
+    }
+
     public static Pageable unpaged(Sort sort) {
         return new CustomPageRequest(0, MAX_PAGE_SIZE, sort);
     }
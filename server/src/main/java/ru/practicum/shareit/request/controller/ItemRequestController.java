@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.InvalidRequestException;
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -16,8 +19,10 @@ public class ItemRequestController {
     private final ItemRequestService requestService;
 
     @GetMapping
-    public List<ItemRequestDto> getYourRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
-        return requestService.getRequestsByUser(userId);
+    public List<ItemRequestDto> getYourRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+                                                @RequestParam(required = false) Integer from,
+                                                @RequestParam(required = false) Integer size) {
+        return requestService.getRequestsByUser(userId, from, size);
     }
 
     @PostMapping
@@ -27,10 +32,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-                                               @RequestParam(defaultValue = "0") Integer from,
-                                               @RequestParam(defaultValue = "10") Integer size) {
-        return requestService.getAllRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+                                                               @RequestParam(required = false) Integer from,
+                                                               @RequestParam(defaultValue = "10") Integer size,
+                                                               @RequestParam(required = false) String after) {
+        List<ItemRequestDto> requests = after == null || after.isBlank()
+                ? requestService.getAllRequests(userId, from != null ? from : 0, size)
+                : requestService.getAllRequestsAfter(userId, toCursor(after, from), size);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPageHeaders(requests, size, ItemRequestDto::getCreated, ItemRequestDto::getId))
+                .body(requests);
     }
 
     @GetMapping("{requestId}")
@@ -39,5 +50,11 @@ public class ItemRequestController {
         return requestService.getRequestById(requestId, userId);
     }
 
+    private Cursor toCursor(String after, Integer from) {
+        if (from != null) {
+            throw new InvalidRequestException("must provide either from or after");
+        }
+        return Cursor.decode(after);
+    }
 
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import java.util.List;
 
@@ -10,5 +11,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size);
 
-    List<ItemRequestDto> getRequestsByUser(Long userId);
+    List<ItemRequestDto> getAllRequestsAfter(Long userId, Cursor after, Integer size);
+
+    List<ItemRequestDto> getRequestsByUser(Long userId, Integer from, Integer size);
 }
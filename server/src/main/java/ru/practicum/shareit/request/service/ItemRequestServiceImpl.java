@@ -1,33 +1,51 @@
 package ru.practicum.shareit.request.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import ru.practicum.shareit.exception.MissingObjectException;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Sort FEED_ORDER = Sort.by(Sort.Direction.DESC, "created", "id");
+    private static final Sort OWN_ORDER = Sort.by(Sort.Direction.ASC, "created", "id");
+
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserExistenceIndex userExistenceIndex;
+    private final int maxPageSize;
+
+    public ItemRequestServiceImpl(ItemRequestRepository requestRepository, UserRepository userRepository,
+                                  ItemRepository itemRepository, UserExistenceIndex userExistenceIndex,
+                                  @Value("${shareit.requests.max-page-size:1000}") int maxPageSize) {
+        this.requestRepository = requestRepository;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.userExistenceIndex = userExistenceIndex;
+        this.maxPageSize = maxPageSize;
+    }
 
     @Override
     public ItemRequestDto addRequest(Long userId, ItemRequestDto requestDto) {
@@ -37,25 +55,33 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getRequestById(Long requestId, Long userId) {
-        getUser(userId); //для проверки наличия
+        userExistenceIndex.check(userId);
         ItemRequest request = getRequest(requestId);
-        return ItemRequestMapper.toItemRequestDto(request, getAnswers(request));
+        return toItemRequestDtos(List.of(request)).get(0);
     }
 
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        return requestRepository.findByRequestorNot(getUser(userId),
-                        CustomPageRequest.create(from, size, Sort.by("created").descending())).stream()
-                .map(request -> ItemRequestMapper.toItemRequestDto(request, getAnswers(request)))
-                .collect(Collectors.toList());
+        return toItemRequestDtos(requestRepository.findByRequestorNot(getUserReference(userId),
+                CustomPageRequest.create(from, size, FEED_ORDER)));
     }
 
     @Override
-    public List<ItemRequestDto> getRequestsByUser(Long userId) {
-        return requestRepository.findByRequestor(getUser(userId)).stream()
-                .map(request -> ItemRequestMapper.toItemRequestDto(request, getAnswers(request)))
-                .sorted(Comparator.comparing(ItemRequestDto::getCreated, Comparator.nullsFirst(Comparator.naturalOrder())))
-                .collect(Collectors.toList());
+    public List<ItemRequestDto> getAllRequestsAfter(Long userId, Cursor after, Integer size) {
+        return toItemRequestDtos(requestRepository.findPageByRequestorNot(getUserReference(userId), after.getTimestamp(),
+                after.getId(), CustomPageRequest.createForCursor(size, FEED_ORDER)));
+    }
+
+    /**
+     * Без from и size возвращает первые maxPageSize запросов: старые клиенты получают список как раньше,
+     * но один вызов не загружает все запросы пользователя.
+     */
+    @Override
+    public List<ItemRequestDto> getRequestsByUser(Long userId, Integer from, Integer size) {
+        Pageable pageable = from == null && size == null
+                ? CustomPageRequest.create(0, maxPageSize, OWN_ORDER)
+                : CustomPageRequest.create(from, size, OWN_ORDER);
+        return toItemRequestDtos(requestRepository.findByRequestor(getUserReference(userId), pageable));
     }
 
     private User getUser(Long userId) {
@@ -63,14 +89,32 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new MissingObjectException("Невозможно найти. Пользователь отсутствует!"));
     }
 
+    private User getUserReference(Long userId) {
+        userExistenceIndex.check(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
     private ItemRequest getRequest(Long id) {
         return requestRepository.findById(id)
                 .orElseThrow(() -> new MissingObjectException("Невозможно найти. Заорпос отсутствует!"));
     }
 
-    private List<ItemForRequestDto> getAnswers(ItemRequest itemRequest) {
-        return itemRepository.findByRequest(itemRequest).stream()
-                .map(ItemMapper::toItemForRequestDto)
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> requests) {
+        Map<Long, List<ItemForRequestDto>> answers = getAnswers(requests);
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        answers.getOrDefault(request.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<ItemForRequestDto>> getAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
                 .collect(Collectors.toList());
+        return itemRepository.findAnswers(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
     }
 }
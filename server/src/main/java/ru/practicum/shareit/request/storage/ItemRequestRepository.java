@@ -2,13 +2,20 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequestor(User requestor);
+    List<ItemRequest> findByRequestor(User requestor, Pageable pageable);
 
     List<ItemRequest> findByRequestorNot(User requestor, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor <> :requestor " +
+            "and (r.created < :cursorCreated or (r.created = :cursorCreated and r.id < :cursorId))")
+    List<ItemRequest> findPageByRequestorNot(User requestor, LocalDateTime cursorCreated, Long cursorId,
+                                             Pageable pageable);
 }
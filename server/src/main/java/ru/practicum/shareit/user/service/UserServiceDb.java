@@ -6,10 +6,16 @@ import org.springframework.stereotype.Service;
 
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.MissingObjectException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemNameIndex;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +25,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceDb implements UserService {
     private final UserRepository userRepository;
+    private final ItemNameIndex itemNameIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserExistenceIndex userExistenceIndex;
 
     @Override
     public List<UserDto> getUsers() {
@@ -39,7 +49,9 @@ public class UserServiceDb implements UserService {
     public UserDto createUser(UserDto userDto) {
         log.info("Получен запрос на создание пользователя");
         try {
-            return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+            User user = userRepository.save(UserMapper.toUser(userDto));
+            userExistenceIndex.add(user.getId());
+            return UserMapper.toUserDto(user);
         } catch (Exception e) {
             throw new DuplicateException("Пользователь с таким email  уже существует");
         }
@@ -67,5 +79,10 @@ public class UserServiceDb implements UserService {
     public void deleteUser(Long id) {
         log.info("Получен запрос на удаление пользователя");
         userRepository.deleteById(id);
+        userExistenceIndex.remove(id);
+        itemNameIndex.reset();
+        itemSearchCache.evictAll();
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(ItemRequest.class);
     }
 }
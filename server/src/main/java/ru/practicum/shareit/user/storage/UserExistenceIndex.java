@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ru.practicum.shareit.exception.MissingObjectException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Идентификаторы пользователей, существование которых недавно подтвердила БД.
+ * Отсутствующие id не запоминаются, поэтому пользователи, созданные другим экземпляром, видны сразу.
+ * Удаление через другой экземпляр этот экземпляр не видит, пока запись не истечет
+ * через shareit.user-index.expire-after-write, так что это кэш проверки, а не источник истины.
+ */
+@Component
+public class UserExistenceIndex {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> known;
+    private final AtomicLong removals = new AtomicLong();
+
+    public UserExistenceIndex(UserRepository userRepository,
+                              @Value("${shareit.user-index.max-size:100000}") long maxSize,
+                              @Value("${shareit.user-index.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.known = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public void check(Long userId) {
+        if (!exists(userId)) {
+            throw new MissingObjectException("Невозможно найти. Пользователь отсутствует!");
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null || userId <= 0) {
+            return false;
+        }
+        if (known.getIfPresent(userId) != null) {
+            return true;
+        }
+        long removalsBefore = removals.get();
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            known.put(userId, Boolean.TRUE);
+            if (removals.get() != removalsBefore) {
+                known.invalidate(userId);
+            }
+        }
+        return exists;
+    }
+
+    public void add(Long userId) {
+        if (userId != null && userId > 0) {
+            known.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void remove(Long userId) {
+        if (userId != null) {
+            removals.incrementAndGet();
+            known.invalidate(userId);
+        }
+    }
+}
@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS bookings, items, requests, users, comments;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -18,6 +16,9 @@ CREATE TABLE IF NOT EXISTS requests
     CONSTRAINT pk_request PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created, id);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created, id);
+
 CREATE TABLE IF NOT EXISTS items
 (
     id          BIGINT GENERATED BY DEFAULT AS IDENTITY        NOT NULL,
@@ -29,6 +30,8 @@ CREATE TABLE IF NOT EXISTS items
     CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings
 (
     id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -39,6 +42,8 @@ CREATE TABLE IF NOT EXISTS bookings
     status     VARCHAR(128)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
 
 CREATE TABLE IF NOT EXISTS comments
 (
@@ -48,4 +53,4 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
     created   TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-);
\ No newline at end of file
+);
@@ -0,0 +1 @@
+ALTER TABLE bookings ADD CONSTRAINT pk_booking PRIMARY KEY (id);
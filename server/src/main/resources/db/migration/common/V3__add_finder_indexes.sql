@@ -0,0 +1,8 @@
+-- items by owner: ItemRepository.findDtoByOwnerId and the owner branches of BookingRepository
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+-- last booking per item: BookingRepository.findLastBookings
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+-- comments of an item: CommentRepository.findByItemId, findDtoByItemIdIn
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
@@ -0,0 +1,10 @@
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+
+UPDATE bookings
+SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+-- owner branches of BookingRepository: WAITING/REJECTED filter by status, the rest by dates only
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date, id);
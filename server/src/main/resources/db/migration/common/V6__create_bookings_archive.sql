@@ -0,0 +1,19 @@
+-- completed bookings moved out of the hot table by BookingArchiver, ids are kept from bookings
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    id         BIGINT                                         NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE,
+    end_date   TIMESTAMP WITHOUT TIME ZONE,
+    item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE,
+    booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE,
+    owner_id   BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
+    status     VARCHAR(128),
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_start ON bookings_archive (owner_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_end ON bookings_archive (item_id, end_date);
+
+-- archiver batch lookup: status = 'APPROVED' and end_date < cutoff
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date, id);
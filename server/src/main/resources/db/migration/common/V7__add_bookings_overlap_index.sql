@@ -0,0 +1,5 @@
+-- overlap probe of BookingRepository.existsOverlapping: the range runs over end_date > :start, which only
+-- reaches bookings that have not ended yet; start_date and status are checked from the index entry
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end_start ON bookings (item_id, end_date, start_date, status);
+
+DROP INDEX IF EXISTS idx_bookings_item_end;
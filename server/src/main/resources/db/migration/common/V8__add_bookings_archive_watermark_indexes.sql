@@ -0,0 +1,5 @@
+-- archiver watermark: min(start_date) of bookings with end_date >= cutoff
+CREATE INDEX IF NOT EXISTS idx_bookings_end_start ON bookings (end_date, start_date);
+-- archiver batch lookup: start_date < watermark, replaces the status = 'APPROVED' and end_date < cutoff lookup
+CREATE INDEX IF NOT EXISTS idx_bookings_start ON bookings (start_date, id);
+DROP INDEX IF EXISTS idx_bookings_status_end;
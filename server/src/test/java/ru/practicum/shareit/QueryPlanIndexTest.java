@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * План каждого поискового запроса репозиториев на схеме, созданной миграциями, не должен читать таблицу целиком.
+ * Текстовый поиск и подсказки по названиям сюда не входят: в Postgres их обслуживают триграммные индексы.
+ */
+@DataJpaTest
+class QueryPlanIndexTest {
+    private static final String NOW = "timestamp '2030-01-01 00:00:00'";
+    private static final String BOOKING_ORDER = " order by b.start_date desc, b.id desc limit 10";
+    private static final String AFTER_CURSOR = " and (b.start_date < " + NOW + " or (b.start_date = " + NOW +
+            " and b.id < 100))";
+    private static final String BY_BOOKER = "select b.* from bookings b where b.booker_id = 1";
+    private static final String BY_OWNER = "select b.* from bookings b where b.owner_id = 1";
+    private static final String OVERLAPPING = "select count(*) from bookings b where b.item_id = 1 " +
+            "and b.end_date > " + NOW + " and b.start_date < timestamp '2030-01-02 00:00:00' " +
+            "and b.status in ('WAITING', 'APPROVED')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_whenApplied_thenAllVersionsSucceeded() {
+        List<Boolean> results = jdbcTemplate.queryForList(
+                "select \"success\" from \"flyway_schema_history\"", Boolean.class);
+
+        assertFalse(results.isEmpty());
+        assertFalse(results.contains(false));
+    }
+
+    @Test
+    void finders_whenExplained_thenUseIndexes() {
+        Map<String, String> finders = new LinkedHashMap<>();
+        finders.put("BookingRepository.findById", "select * from bookings b where b.id = 1");
+        finders.put("BookingListRepository.findAll(booker, ALL)", BY_BOOKER + BOOKING_ORDER);
+        finders.put("BookingListRepository.findAll(booker, PAST, after)",
+                BY_BOOKER + " and b.end_date < " + NOW + AFTER_CURSOR + BOOKING_ORDER);
+        finders.put("BookingListRepository.findAll(booker, WAITING, after)",
+                BY_BOOKER + " and b.status = 'WAITING'" + AFTER_CURSOR + BOOKING_ORDER);
+        finders.put("BookingRepository.findByBookerAndItem", BY_BOOKER + " and b.item_id = 1");
+        finders.put("BookingListRepository.findAll(owner, ALL)", BY_OWNER + BOOKING_ORDER);
+        finders.put("BookingListRepository.findAll(owner, WAITING)", BY_OWNER + " and b.status = 'WAITING'" + BOOKING_ORDER);
+        finders.put("BookingListRepository.findAll(owner, FUTURE, after)",
+                BY_OWNER + " and b.start_date > " + NOW + AFTER_CURSOR + BOOKING_ORDER);
+        finders.put("BookingRepository.existsOverlapping", OVERLAPPING);
+        finders.put("BookingRepository.findLastBookings", "select b.* from bookings b " +
+                "where b.item_id in (1, 2) and b.end_date < " + NOW + " and not exists (select b2.id from bookings b2 " +
+                "where b2.item_id = b.item_id and b2.end_date < " + NOW + " and (b2.end_date > b.end_date " +
+                "or (b2.end_date = b.end_date and b2.id > b.id)))");
+        finders.put("BookingRepository.findNextBookings", "select b.* from bookings b " +
+                "where b.item_id in (1, 2) and b.start_date > " + NOW + " and not exists (select b2.id from bookings b2 " +
+                "where b2.item_id = b.item_id and b2.start_date > " + NOW + " and (b2.start_date < b.start_date " +
+                "or (b2.start_date = b.start_date and b2.id < b.id)))");
+        finders.put("BookingRepository.findActiveBookings", "select b.* from bookings b " +
+                "where b.item_id = 1 and b.end_date > " + NOW + " and b.status in ('WAITING', 'APPROVED')");
+        finders.put("BookingRepository.findEarliestStartEndingFrom", "select min(b.start_date) from bookings b " +
+                "where b.end_date >= " + NOW);
+        finders.put("BookingRepository.findIdsToArchive", "select b.id from bookings b " +
+                "where b.start_date < " + NOW + " limit 500");
+        finders.put("BookingListRepository.findAll(archive, booker, ALL, after)", "select b.* from bookings_archive b " +
+                "where b.booker_id = 1" + AFTER_CURSOR + BOOKING_ORDER);
+        finders.put("BookingListRepository.findAll(archive, owner, ALL)", "select b.* from bookings_archive b " +
+                "where b.owner_id = 1" + BOOKING_ORDER);
+        finders.put("ArchivedBookingRepository.existsByBookerIdAndItemId", "select b.id from bookings_archive b " +
+                "where b.booker_id = 1 and b.item_id = 1");
+        finders.put("ArchivedBookingRepository.findLastBookings", "select b.* from bookings_archive b " +
+                "where b.item_id in (1, 2) and not exists (select b2.id from bookings_archive b2 " +
+                "where b2.item_id = b.item_id and (b2.end_date > b.end_date " +
+                "or (b2.end_date = b.end_date and b2.id > b.id)))");
+        finders.put("ItemRepository.findDtoById", "select i.*, r.id from items i " +
+                "left join requests r on i.request_id = r.id where i.id = 1");
+        finders.put("ItemRepository.findDtoByOwnerId", "select i.*, r.id from items i " +
+                "left join requests r on i.request_id = r.id where i.owner_id = 1 order by i.id limit 10");
+        finders.put("ItemRepository.getItemOwner", "select u.* from items i join users u on i.owner_id = u.id " +
+                "where i.id = 1");
+        finders.put("ItemRepository.findAnswers", "select i.* from items i where i.request_id in (1, 2)");
+        finders.put("CommentRepository.findByItemId", "select c.* from comments c where c.item_id = 1");
+        finders.put("CommentRepository.findDtoByItemIdIn", "select c.*, a.name from comments c " +
+                "join users a on c.author_id = a.id where c.item_id in (1, 2) order by c.id");
+        finders.put("ItemRequestRepository.findByRequestor", "select r.* from requests r " +
+                "where r.requestor_id = 1 order by r.created desc, r.id desc limit 10");
+        finders.put("UserRepository.existsByEmail", "select u.id from users u where u.email = 'mail@mail.ru'");
+
+        Map<String, String> scans = new LinkedHashMap<>();
+        finders.forEach((finder, sql) -> {
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+            if (plan.contains(".tableScan")) {
+                scans.put(finder, plan);
+            }
+        });
+
+        assertEquals(Map.of(), scans);
+    }
+
+    @Test
+    void existsOverlapping_whenExplained_thenProbesEndDate() {
+        String plan = jdbcTemplate.queryForObject("explain " + OVERLAPPING, String.class);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_ITEM_END_START"), plan);
+    }
+}
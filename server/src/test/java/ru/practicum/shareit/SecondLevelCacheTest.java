@@ -0,0 +1,182 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.orm.jpa.HibernateMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingArchiver;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingRetention;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "shareit.booking-archive.skip-locked=false"})
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class,
+        HibernateMetricsAutoConfiguration.class})
+@Import({BookingArchiver.class, BookingRetention.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest extends StatementCountingTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private TransactionTemplate transaction;
+    private User owner;
+
+    @BeforeEach
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+    }
+
+    @AfterEach
+    void clean() {
+        bookingRepository.deleteAll();
+        archivedBookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findById_whenUserLoadedBefore_thenServedFromCache() {
+        userRepository.findById(owner.getId());
+
+        assertEquals(0, countInTransaction(() -> userRepository.findById(owner.getId())));
+    }
+
+    @Test
+    void findById_whenItemAndRequestLoadedBefore_thenServedFromCache() {
+        ItemRequest request = requestRepository.save(new ItemRequest(null, "нужна дрель", owner, LocalDateTime.now()));
+        Item item = itemRepository.save(Item.builder()
+                .name("дрель")
+                .description("ударная")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+        itemRepository.findById(item.getId());
+        requestRepository.findById(request.getId());
+
+        assertEquals(0, countInTransaction(() -> itemRepository.findById(item.getId())));
+        assertEquals(0, countInTransaction(() -> requestRepository.findById(request.getId())));
+    }
+
+    @Test
+    void findById_whenUserUpdated_thenReturnedNewValue() {
+        userRepository.findById(owner.getId());
+        transaction.executeWithoutResult(status -> userRepository.findById(owner.getId())
+                .orElseThrow()
+                .setName("updated"));
+
+        User user = inTransaction(() -> userRepository.findById(owner.getId()).orElseThrow());
+
+        assertEquals("updated", user.getName());
+    }
+
+    @Test
+    void findById_whenItemRegionEvictedAfterOwnerDeleted_thenItemGone() {
+        Item item = itemRepository.save(Item.builder()
+                .name("дрель")
+                .description("ударная")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemRepository.findById(item.getId());
+
+        userRepository.deleteById(owner.getId());
+        entityManagerFactory.getCache().evict(Item.class);
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void archive_whenBookingsMoved_thenCachedUserKept() {
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("дрель")
+                .description("ударная")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, owner, BookingStatus.APPROVED));
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+
+        assertEquals(1, bookingArchiver.archive());
+
+        assertEquals(0, countInTransaction(() -> userRepository.findById(owner.getId())));
+        assertEquals(0, countInTransaction(() -> itemRepository.findById(item.getId())));
+    }
+
+    @Test
+    void findById_whenUserLoadedTwice_thenMissAndHitMetered() {
+        entityManagerFactory.getCache().evict(User.class);
+        double misses = cacheRequests("miss");
+        double hits = cacheRequests("hit");
+
+        inTransaction(() -> userRepository.findById(owner.getId()));
+        inTransaction(() -> userRepository.findById(owner.getId()));
+
+        assertEquals(misses + 1, cacheRequests("miss"));
+        assertEquals(hits + 1, cacheRequests("hit"));
+    }
+
+    private double cacheRequests(String result) {
+        return meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "users", "result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private long countInTransaction(Runnable query) {
+        return countStatements(() -> transaction.executeWithoutResult(status -> query.run()));
+    }
+
+    private <T> T inTransaction(Supplier<T> query) {
+        return transaction.execute(status -> query.get());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Основа тестов на число SQL-выражений: включает статистику Hibernate и считает выражения,
+ * подготовленные за время запроса. Наследники добавляют свои бины через @Import и при необходимости
+ * переопределяют @DataJpaTest, статистика при этом остается включенной.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public abstract class StatementCountingTest {
+    @Autowired
+    protected TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void initStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Число выражений, подготовленных за время query. Если тест идет в транзакции, контекст персистентности
+     * перед этим очищается, чтобы сущности, сохраненные в тесте, читались из базы.
+     */
+    protected long countStatements(Runnable query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            em.clear();
+        }
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    protected User persistUser(String name) {
+        return em.persist(User.builder().name(name).email(name + "@mail.ru").build());
+    }
+
+    protected Item persistItem(String name, User owner, ItemRequest request) {
+        return em.persist(Item.builder()
+                .name(name)
+                .description("description of " + name)
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+    }
+}
@@ -14,9 +14,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.LinkedMultiValueMap;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.UnknownStateException;
+import ru.practicum.shareit.paging.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
@@ -24,6 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -95,6 +104,19 @@ class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingOut), result);
     }
 
+    @SneakyThrows
+    @Test
+    void approve_whenAlreadyDecided_thenReturnedConflict() {
+        when(bookingService.updateApprove(1L, true, 1L))
+                .thenThrow(new ConflictException("Статус бронирования можно изменить только во время его ожидания"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", 1)
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Статус бронирования можно изменить только во время его ожидания")));
+    }
+
     @SneakyThrows
     @Test
     void approve_whenNotApprove_thenReturnedClientError() {
@@ -141,6 +163,37 @@ class BookingControllerTest {
         verify(bookingService, never()).getBookingInfo(anyLong(), anyLong());
     }
 
+    @SneakyThrows
+    @Test
+    void getSummary_whenRequestCorrect_thenReturnedOk() {
+        BookingSummaryDto summary = new BookingSummaryDto(3L, 1L, 1L, 1L, 1L, 0L);
+        when(bookingService.getSummary(1L)).thenReturn(summary);
+
+        String result = mockMvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(summary), result);
+        verify(bookingService, never()).getBookingInfo(anyLong(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnerSummary_whenRequestCorrect_thenReturnedOk() {
+        BookingSummaryDto summary = new BookingSummaryDto(2L, 0L, 2L, 0L, 0L, 1L);
+        when(bookingService.getOwnerSummary(1L)).thenReturn(summary);
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(content().json(objectMapper.writeValueAsString(summary)));
+
+        verify(bookingService).getOwnerSummary(1L);
+    }
+
     @SneakyThrows
     @Test
     void getAllBookings_whenRequestCorrect_thenReturnedOk() {
@@ -148,6 +201,7 @@ class BookingControllerTest {
         requestParams.add("state", "CURRENT");
         requestParams.add("from", "0");
         requestParams.add("size", "10");
+        requestParams.add("view", "full");
         when(bookingService.getAllBookings(anyLong(), any(), anyInt(), anyInt())).thenReturn(List.of(bookingOut));
 
         String result = mockMvc.perform(get("/bookings", 1)
@@ -162,12 +216,73 @@ class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(List.of(bookingOut)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenPageFull_thenReturnedNextCursor() {
+        bookingOut = BookingOutputDto.builder().id(5L).start(LocalDateTime.of(2030, 1, 1, 10, 0)).build();
+        when(bookingService.getAllBookings(anyLong(), any(), anyInt(), anyInt())).thenReturn(List.of(bookingOut));
+
+        mockMvc.perform(get("/bookings")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("view", "full")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        new Cursor(bookingOut.getStart(), 5L).encode()));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenAfterPresent_thenReturnedPageAfterCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2030, 1, 1, 10, 0), 5L);
+        when(bookingService.getAllBookingsAfter(1L, BookingState.ALL, cursor, 10)).thenReturn(List.of(bookingOut));
+
+        mockMvc.perform(get("/bookings")
+                        .param("after", cursor.encode())
+                        .param("size", "10")
+                        .param("view", "full")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER));
+
+        verify(bookingService, never()).getAllBookings(anyLong(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenAfterAndFromPresent_thenReturnedClientError() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2030, 1, 1, 10, 0), 5L);
+
+        mockMvc.perform(get("/bookings")
+                        .param("after", cursor.encode())
+                        .param("from", "0")
+                        .param("size", "10")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).getAllBookingsAfter(anyLong(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookingsForOwner_whenAfterIncorrect_thenReturnedClientError() {
+        mockMvc.perform(get("/bookings/owner")
+                        .param("after", "not a cursor")
+                        .param("size", "10")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).getAllBookingsForOwnerAfter(anyLong(), any(), any(), any());
+    }
+
     @SneakyThrows
     @Test
     void getAllBookings_whenRequestCorrectNotState_thenReturnedOk() {
         LinkedMultiValueMap<String, String> requestParams = new LinkedMultiValueMap<>();
         requestParams.add("from", "0");
         requestParams.add("size", "10");
+        requestParams.add("view", "full");
         when(bookingService.getAllBookings(anyLong(), any(), anyInt(), anyInt())).thenReturn(List.of(bookingOut));
 
         String result = mockMvc.perform(get("/bookings", 1)
@@ -223,7 +338,7 @@ class BookingControllerTest {
         when(bookingService.getAllBookings(anyLong(), any(), anyInt(), anyInt()))
                 .thenThrow(new UnknownStateException(""));
 
-        mockMvc.perform(get("/bookings?state=UNSUPPORTED&from=0&size=10")
+        mockMvc.perform(get("/bookings?state=UNSUPPORTED&from=0&size=10&view=full")
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().is4xxClientError())
                 .andExpect(jsonPath("$.error", is("Unknown state: UNSUPPORTED_STATUS")));
@@ -236,6 +351,7 @@ class BookingControllerTest {
         requestParams.add("state", "CURRENT");
         requestParams.add("from", "0");
         requestParams.add("size", "10");
+        requestParams.add("view", "full");
         when(bookingService.getAllBookingsForOwner(anyLong(), any(), anyInt(), anyInt())).thenReturn(List.of(bookingOut));
 
         String result = mockMvc.perform(get("/bookings/owner", 1)
@@ -256,6 +372,7 @@ class BookingControllerTest {
         LinkedMultiValueMap<String, String> requestParams = new LinkedMultiValueMap<>();
         requestParams.add("from", "0");
         requestParams.add("size", "10");
+        requestParams.add("view", "full");
         when(bookingService.getAllBookingsForOwner(anyLong(), any(), anyInt(), anyInt())).thenReturn(List.of(bookingOut));
 
         String result = mockMvc.perform(get("/bookings/owner", 1)
@@ -283,4 +400,41 @@ class BookingControllerTest {
 
         verify(bookingService, never()).getAllBookingsForOwner(anyLong(), any(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllBookingsForOwner_whenViewNotPresent_thenReturnedShortView() {
+        BookingShortDto shortDto = new BookingShortDto(5L, LocalDateTime.of(2030, 1, 1, 10, 0),
+                LocalDateTime.of(2030, 1, 2, 10, 0), BookingStatus.WAITING, 2L, "Дрель", 3L, "Иван");
+        when(bookingService.getShortBookingsForOwner(1L, BookingState.ALL, 0, 1)).thenReturn(List.of(shortDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(5)))
+                .andExpect(jsonPath("$[0].status", is("WAITING")))
+                .andExpect(jsonPath("$[0].item.id", is(2)))
+                .andExpect(jsonPath("$[0].item.name", is("Дрель")))
+                .andExpect(jsonPath("$[0].booker.id", is(3)))
+                .andExpect(jsonPath("$[0].item.owner").doesNotExist())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        new Cursor(shortDto.getStart(), 5L).encode()));
+
+        verify(bookingService, never()).getAllBookingsForOwner(anyLong(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenViewIncorrect_thenReturnedClientError() {
+        mockMvc.perform(get("/bookings")
+                        .param("view", "huge")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown view: huge")));
+
+        verify(bookingService, never()).getShortBookings(anyLong(), any(), any(), any());
+        verify(bookingService, never()).getAllBookings(anyLong(), any(), any(), any());
+    }
+}
@@ -23,6 +23,7 @@ public class BookingMapperTest {
             LocalDateTime.of(2024, 1, 2, 1, 1, 1),
             new Item(1L, "Корректный предмет", "Корректное описание", true, owner, request),
             new User(1L, "user", "user@gmail.com"),
+            owner,
             WAITING
     );
 
@@ -49,6 +50,15 @@ public class BookingMapperTest {
     }
 
 
+    @Test
+    public void toBookingTest_whenItemHasOwner_thenBookingKeepsOwner() {
+        BookingOutputDto bookingDto = BookingMapper.toBookingDto(booking);
+
+        Booking newBooking = BookingMapper.toBooking(bookingDto);
+
+        assertEquals(owner, newBooking.getOwner());
+    }
+
     @Test
     public void toBookingTest() {
         BookingOutputDto bookingDto = new BookingOutputDto(
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.InvalidRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingServiceDbConcurrencyTest {
+    private static final int THREADS = 4;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void clean() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBooking_whenSameIntervalConcurrently_thenOnlyOneCreated() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingInputDto input = new BookingInputDto(item.getId(), start, start.plusDays(1));
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("booker" + i)
+                    .email("booker" + i + "@mail.ru")
+                    .build()).getId());
+        }
+
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (Long bookerId : bookers) {
+            Callable<?> task = () -> {
+                ready.await();
+                return bookingService.createBooking(input, bookerId);
+            };
+            results.add(executor.submit(task));
+        }
+        ready.countDown();
+
+        int created = 0;
+        int rejected = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof InvalidRequestException);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(THREADS - 1, rejected);
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void updateApprove_whenDecidedConcurrently_thenOnlyOneDecisionApplied() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(new BookingInputDto(item.getId(), start, start.plusDays(1)),
+                booker.getId()).getId();
+
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<BookingOutputDto>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            Callable<BookingOutputDto> task = () -> {
+                ready.await();
+                return bookingService.updateApprove(bookingId, approved, owner.getId());
+            };
+            results.add(executor.submit(task));
+        }
+        ready.countDown();
+
+        List<BookingStatus> applied = new ArrayList<>();
+        int conflicts = 0;
+        for (Future<BookingOutputDto> result : results) {
+            try {
+                applied.add(result.get().getStatus());
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConflictException);
+                conflicts++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, applied.size());
+        assertEquals(THREADS - 1, conflicts);
+        assertEquals(applied.get(0), bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+}
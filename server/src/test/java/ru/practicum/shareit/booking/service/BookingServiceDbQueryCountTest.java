@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import ru.practicum.shareit.StatementCountingTest;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.booking.storage.BookingCalendar;
+import ru.practicum.shareit.booking.storage.BookingListRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.paging.Cursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Import({BookingServiceDb.class, BookingListRepository.class, BookingCalendar.class, UserExistenceIndex.class})
+class BookingServiceDbQueryCountTest extends StatementCountingTest {
+    private static final int PAIRS = 6;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private BookingServiceDb bookingService;
+    @Autowired
+    private UserExistenceIndex userExistenceIndex;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void init() {
+        owner = persistUser("owner");
+        booker = persistUser("booker");
+        userExistenceIndex.add(owner.getId());
+        userExistenceIndex.add(booker.getId());
+        for (int i = 0; i < PAIRS; i++) {
+            User otherOwner = persistUser("owner" + i);
+            User otherBooker = persistUser("booker" + i);
+            ItemRequest request = em.persist(new ItemRequest(null, "request " + i, otherBooker, LocalDateTime.now()));
+            createBookings(persistItem("own " + i, owner, i % 2 == 0 ? request : null), otherBooker);
+            createBookings(persistItem("other " + i, otherOwner, i % 2 == 0 ? null : request), booker);
+        }
+        em.flush();
+    }
+
+    @Test
+    void getAllBookings_whenAnyState_thenOneQueryPerPage() {
+        for (BookingState state : BookingState.values()) {
+            assertOneQuery(state, () -> bookingService.getAllBookings(booker.getId(), state, 0, PAGE_SIZE));
+        }
+    }
+
+    @Test
+    void getAllBookingsForOwner_whenAnyState_thenOneQueryPerPage() {
+        for (BookingState state : BookingState.values()) {
+            assertOneQuery(state, () -> bookingService.getAllBookingsForOwner(owner.getId(), state, 0, PAGE_SIZE));
+        }
+    }
+
+    @Test
+    void getAllBookingsAfter_whenAnyState_thenOneQueryPerPage() {
+        Cursor first = new Cursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE);
+        for (BookingState state : BookingState.values()) {
+            assertOneQuery(state, () -> bookingService.getAllBookingsAfter(booker.getId(), state, first, PAGE_SIZE));
+        }
+    }
+
+    @Test
+    void getAllBookingsForOwnerAfter_whenAnyState_thenOneQueryPerPage() {
+        Cursor first = new Cursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE);
+        for (BookingState state : BookingState.values()) {
+            assertOneQuery(state,
+                    () -> bookingService.getAllBookingsForOwnerAfter(owner.getId(), state, first, PAGE_SIZE));
+        }
+    }
+
+    @Test
+    void getAllBookings_whenPageReachesArchive_thenOneQueryPerTable() {
+        Item item = persistItem("archived", persistUser("old"), null);
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        em.persist(new ArchivedBooking(1000L, longAgo, longAgo.plusDays(1), item, booker, item.getOwner(),
+                BookingStatus.APPROVED));
+        em.flush();
+
+        for (BookingState state : List.of(BookingState.ALL, BookingState.PAST)) {
+            List<BookingOutputDto> bookings = assertQueries(2, state,
+                    () -> bookingService.getAllBookings(booker.getId(), state, 0, PAGE_SIZE * 10));
+            assertEquals(1000L, bookings.get(bookings.size() - 1).getId(), state.name());
+        }
+    }
+
+    @Test
+    void getBookingInfo_whenAssociationsSerialized_thenOneQuery() {
+        Long bookingId = bookingService.getAllBookings(booker.getId(), BookingState.ALL, 0, 1).get(0).getId();
+
+        assertEquals(1, countStatements(() -> serialized(bookingService.getBookingInfo(bookingId, booker.getId()))));
+    }
+
+    private void assertOneQuery(BookingState state, Supplier<List<BookingOutputDto>> page) {
+        assertQueries(1, state, page);
+    }
+
+    private List<BookingOutputDto> assertQueries(long expected, BookingState state,
+                                                 Supplier<List<BookingOutputDto>> page) {
+        AtomicReference<List<BookingOutputDto>> bookings = new AtomicReference<>();
+        long count = countStatements(() -> bookings.set(serialized(page.get())));
+
+        assertFalse(bookings.get().isEmpty(), state.name());
+        assertEquals(expected, count, state.name());
+        return bookings.get();
+    }
+
+    private <T> T serialized(T value) {
+        try {
+            objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        return value;
+    }
+
+    private void createBookings(Item item, User itemBooker) {
+        LocalDateTime now = LocalDateTime.now();
+        User itemOwner = item.getOwner();
+        em.persist(new Booking(null, now.minusDays(3), now.minusDays(2), item, itemBooker, itemOwner, BookingStatus.APPROVED));
+        em.persist(new Booking(null, now.minusDays(1), now.plusDays(1), item, itemBooker, itemOwner, BookingStatus.APPROVED));
+        em.persist(new Booking(null, now.plusDays(2), now.plusDays(3), item, itemBooker, itemOwner, BookingStatus.WAITING));
+        em.persist(new Booking(null, now.plusDays(4), now.plusDays(5), item, itemBooker, itemOwner, BookingStatus.REJECTED));
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -11,16 +12,25 @@ import org.mockito.quality.Strictness;
 
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingCalendar;
+import ru.practicum.shareit.booking.storage.BookingListRepository;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.InvalidRequestException;
 import ru.practicum.shareit.exception.MissingObjectException;
 import ru.practicum.shareit.exception.OtherDataException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -37,6 +47,7 @@ import static org.mockito.Mockito.*;
 class BookingServiceDbTest {
     private static final LocalDateTime START = LocalDateTime.of(2032, 9, 15, 9, 19);
     private static final LocalDateTime END = LocalDateTime.of(2033, 1, 1, 0, 0);
+    private static final BookingSummaryDto EMPTY_SUMMARY = new BookingSummaryDto(0L, 0L, 0L, 0L, 0L, 0L);
 
     @InjectMocks
     private BookingServiceDb bookingServiceDb;
@@ -50,6 +61,18 @@ class BookingServiceDbTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingCalendar bookingCalendar;
+
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
+
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private BookingListRepository bookingListRepository;
+
     private Item item;
 
     private User booker;
@@ -88,6 +111,8 @@ class BookingServiceDbTest {
         bookingInputDto = new BookingInputDto();
         when(bookingRepository.save(any())).thenAnswer(input -> input.getArguments()[0]);
         when(itemRepository.getItemOwner(eq(2L))).thenReturn(owner);
+        when(userExistenceIndex.exists(anyLong())).thenReturn(true);
+        doCallRealMethod().when(userExistenceIndex).check(any());
     }
 
     @Test
@@ -125,7 +150,7 @@ class BookingServiceDbTest {
 
     @Test
     void createBooking_whenItemNotFound_thenThrowException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(
                 MissingObjectException.class,
@@ -135,7 +160,7 @@ class BookingServiceDbTest {
 
     @Test
     void createBooking_whenItemNotAvailable_thenThrowException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(Item.builder().available(false).build()));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(Item.builder().available(false).build()));
 
         assertThrows(
                 InvalidRequestException.class,
@@ -145,7 +170,7 @@ class BookingServiceDbTest {
 
     @Test
     void createBooking_whenOwnerItem_thenThrowException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(
                 OtherDataException.class,
@@ -155,7 +180,7 @@ class BookingServiceDbTest {
 
     @Test
     void createBooking_whenUserNotFound_thenThrowException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
         assertThrows(
                 MissingObjectException.class,
@@ -165,7 +190,7 @@ class BookingServiceDbTest {
 
     @Test
     void createBooking_whenCorrect_thenSave() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(Item.builder()
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(Item.builder()
                 .available(true)
                 .owner(User.builder()
                         .id(1L)
@@ -175,7 +200,22 @@ class BookingServiceDbTest {
 
         bookingServiceDb.createBooking(input, 2L);
 
-        verify(bookingRepository).save(any());
+        ArgumentCaptor<Booking> captor = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).existsOverlapping(any(), eq(START), eq(END), any());
+        verify(bookingRepository).save(captor.capture());
+        assertEquals(1L, captor.getValue().getOwner().getId());
+    }
+
+    @Test
+    void createBooking_whenItemAlreadyBooked_thenThrowException() {
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.existsOverlapping(eq(2L), eq(START), eq(END), any())).thenReturn(true);
+
+        assertThrows(
+                InvalidRequestException.class,
+                () -> bookingServiceDb.createBooking(input, 2L));
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -190,71 +230,64 @@ class BookingServiceDbTest {
 
     @Test
     void updateApprove_whenBookerNotFound_thenThrowException() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(any())).thenReturn(Optional.empty());
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
         assertThrows(MissingObjectException.class,
                 () -> bookingServiceDb.updateApprove(1L, true, 1L));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).updateStatus(any(), any(), any(), any());
     }
 
     @Test
     void updateApprove_whenNotOwnerItem_thenThrowException() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(any())).thenReturn(Optional.of(booker));
 
         assertThrows(OtherDataException.class,
                 () -> bookingServiceDb.updateApprove(1L, true, 2L));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository).updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED);
     }
 
     @Test
-    void updateApprove_whenStatusNotWaiting_thenThrowException() {
+    void updateApprove_whenStatusNotWaiting_thenThrowConflictException() {
         booking.setStatus(BookingStatus.APPROVED);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(any())).thenReturn(Optional.of(owner));
 
-        assertThrows(InvalidRequestException.class,
+        assertThrows(ConflictException.class,
                 () -> bookingServiceDb.updateApprove(3L, true, 1L));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingCalendar, never()).evict(any());
     }
 
     @Test
     void updateApprove_whenBookingSetStatusApproved_thenReturnedStatus() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(any())).thenReturn(Optional.of(owner));
+        stubStatusUpdate(BookingStatus.APPROVED);
 
         BookingOutputDto result = bookingServiceDb.updateApprove(3L, true, 1L);
 
-        verify(bookingRepository).save(any());
-
+        verify(bookingRepository).updateStatus(3L, 1L, BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingCalendar, never()).evict(any());
         assertEquals(BookingStatus.APPROVED, result.getStatus());
     }
 
     @Test
     void updateApprove_whenBookingSetStatusRejected_thenReturnedStatus() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(any())).thenReturn(Optional.of(owner));
+        stubStatusUpdate(BookingStatus.REJECTED);
 
         BookingOutputDto result = bookingServiceDb.updateApprove(3L, false, 1L);
 
-        verify(bookingRepository).save(any());
-
+        verify(bookingRepository).updateStatus(3L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED);
+        verify(bookingCalendar).evict(item.getId());
         assertEquals(BookingStatus.REJECTED, result.getStatus());
     }
 
     @Test
     void updateApprove_whenBookingCorrect_thenUpdateOnlyStatus() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(any())).thenReturn(Optional.of(owner));
+        stubStatusUpdate(BookingStatus.APPROVED);
 
         BookingOutputDto result = bookingServiceDb.updateApprove(3L, true, 1L);
 
-        verify(bookingRepository).save(any());
-
         assertEquals(BookingStatus.APPROVED, result.getStatus());
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getItem(), result.getItem());
@@ -265,7 +298,7 @@ class BookingServiceDbTest {
 
     @Test
     void getBookingInfo_whenUserNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
         assertThrows(MissingObjectException.class,
                 () -> bookingServiceDb.getBookingInfo(3L, 4L));
@@ -273,7 +306,6 @@ class BookingServiceDbTest {
 
     @Test
     void getBookingInfo_whenBookingNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
         when(bookingRepository.findById(any())).thenReturn(Optional.empty());
 
         assertThrows(MissingObjectException.class,
@@ -282,16 +314,14 @@ class BookingServiceDbTest {
 
     @Test
     void getBookingInfo_whenNotOwnerAndBooker_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(trespasser));
         when(bookingRepository.findById(any())).thenReturn(Optional.of(booking));
 
         assertThrows(OtherDataException.class,
-                () -> bookingServiceDb.getBookingInfo(3L, 1L));
+                () -> bookingServiceDb.getBookingInfo(3L, 3L));
     }
 
     @Test
     void getBookingInfo_whenOwnerRequest_thenReturnedInfo() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
         when(bookingRepository.findById(any())).thenReturn(Optional.of(booking));
 
         BookingOutputDto result = bookingServiceDb.getBookingInfo(3L, 1L);
@@ -301,172 +331,227 @@ class BookingServiceDbTest {
 
     @Test
     void getBookingInfo_whenBookerRequest_thenReturnedInfo() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository.findById(any())).thenReturn(Optional.of(booking));
 
-        BookingOutputDto result = bookingServiceDb.getBookingInfo(3L, 1L);
+        BookingOutputDto result = bookingServiceDb.getBookingInfo(3L, 2L);
 
         assertEquals(BookingMapper.toBookingDto(booking), result);
     }
 
     @Test
-    void getAllBookings_whenUserNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    void getSummary_whenUserNotFound_thenThrowException() {
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
         assertThrows(MissingObjectException.class,
-                () -> bookingServiceDb.getAllBookings(3L, ALL, null, null));
+                () -> bookingServiceDb.getSummary(3L));
+        verify(bookingListRepository, never()).summarize(any(), any(), any());
     }
 
     @Test
-    void getAllBookings_whenStateALL_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBooker(any(), any())).thenReturn(List.of(booking));
+    void getSummary_whenUserExists_thenReturnedCounts() {
+        BookingSummaryDto summary = new BookingSummaryDto(3L, 1L, 1L, 1L, 1L, 0L);
+        when(bookingListRepository.summarize(eq(Booking.class), any(), any())).thenReturn(summary);
+        when(bookingListRepository.summarize(eq(ArchivedBooking.class), any(), any())).thenReturn(EMPTY_SUMMARY);
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, ALL, null, null);
+        BookingSummaryDto result = bookingServiceDb.getSummary(2L);
 
-        verify(bookingRepository).findByBooker(any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(summary, result);
     }
 
     @Test
-    void getAllBookings_whenStateCURRENT_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findCurrentByBooker(any(), any())).thenReturn(List.of(booking));
+    void getOwnerSummary_whenUserExists_thenReturnedCounts() {
+        BookingSummaryDto summary = new BookingSummaryDto(2L, 0L, 2L, 0L, 0L, 1L);
+        when(bookingListRepository.summarize(eq(Booking.class), any(), any())).thenReturn(summary);
+        when(bookingListRepository.summarize(eq(ArchivedBooking.class), any(), any())).thenReturn(EMPTY_SUMMARY);
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, CURRENT, null, null);
+        BookingSummaryDto result = bookingServiceDb.getOwnerSummary(1L);
 
-        verify(bookingRepository).findCurrentByBooker(any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(summary, result);
     }
 
     @Test
-    void getAllBookings_whenStatePAST_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerAndEndIsBefore(any(), any(), any())).thenReturn(List.of(booking));
+    void getSummary_whenBookingsArchived_thenArchivedCountsAdded() {
+        when(bookingListRepository.summarize(eq(Booking.class), any(), any()))
+                .thenReturn(new BookingSummaryDto(3L, 1L, 1L, 1L, 1L, 0L));
+        when(bookingListRepository.summarize(eq(ArchivedBooking.class), any(), any()))
+                .thenReturn(new BookingSummaryDto(5L, 0L, 5L, 0L, 0L, 2L));
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, PAST, null, null);
+        BookingSummaryDto result = bookingServiceDb.getSummary(2L);
 
-        verify(bookingRepository).findByBookerAndEndIsBefore(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(new BookingSummaryDto(8L, 1L, 6L, 1L, 1L, 2L), result);
     }
 
     @Test
-    void getAllBookings_whenStateFUTURE_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerAndStartIsAfter(any(), any(), any())).thenReturn(List.of(booking));
+    void getAllBookings_whenUserNotFound_thenThrowException() {
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, FUTURE, null, null);
+        assertThrows(MissingObjectException.class,
+                () -> bookingServiceDb.getAllBookings(3L, ALL, null, null));
+        verify(bookingListRepository, never()).findAll(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAllBookings_whenStateALL_thenReturnedListBookingDto() {
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of(booking));
+
+        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, ALL, null, null);
 
-        verify(bookingRepository).findByBookerAndStartIsAfter(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        verify(bookingListRepository).findAll(eq(Booking.class), eq(Booking.FULL_GRAPH), any(), any());
+        verify(userRepository, never()).findById(anyLong());
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), result);
     }
 
     @Test
-    void getAllBookings_whenStateWAITING_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerAndStatus(any(), any(), any())).thenReturn(List.of(booking));
+    void getAllBookings_whenStateFUTURE_thenArchiveNotQueried() {
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of());
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, WAITING, null, null);
+        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, FUTURE, 0, 10);
 
-        verify(bookingRepository).findByBookerAndStatus(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertTrue(result.isEmpty());
+        verify(bookingListRepository, never()).findAll(eq(ArchivedBooking.class), any(), any(), any());
     }
 
     @Test
-    void getAllBookings_whenStateREJECTED_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerAndStatus(any(), any(), any())).thenReturn(List.of(booking));
+    void getAllBookingsAfter_whenSizeNotPresent_thenThrowInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> bookingServiceDb.getAllBookingsForOwnerAfter(2L, ALL,
+                new Cursor(LocalDateTime.now(), 1L), null));
+        verify(bookingListRepository, never()).findAll(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAllBookings_whenPastPageFull_thenArchiveNotQueried() {
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of(booking));
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, REJECTED, null, null);
+        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, PAST, 0, 1);
 
-        verify(bookingRepository).findByBookerAndStatus(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), result);
+        verify(bookingListRepository, never()).findAll(eq(ArchivedBooking.class), any(), any(), any());
     }
 
     @Test
-    void getAllBookingsForOwner_whenUserNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    void getAllBookingsAfter_whenPastPageShort_thenContinuedInArchive() {
+        Cursor cursor = new Cursor(START.plusYears(1), 100L);
+        ArchivedBooking archived = archivedBooking(9L, LocalDateTime.of(2020, 1, 1, 10, 0));
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingListRepository.findAll(eq(ArchivedBooking.class), any(), any(), any()))
+                .thenReturn(List.of(archived));
 
-        assertThrows(MissingObjectException.class,
-                () -> bookingServiceDb.getAllBookingsForOwner(3L, ALL, null, null));
+        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsAfter(2L, PAST, cursor, 10);
+
+        assertEquals(List.of(BookingMapper.toBookingDto(booking),
+                BookingMapper.toBookingDto(BookingMapper.toBooking(archived))), result);
+        verify(bookingListRepository).findAll(eq(ArchivedBooking.class), eq(ArchivedBooking.FULL_GRAPH), any(),
+                argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 9));
+        verify(bookingListRepository, never()).count(any(), any());
     }
 
     @Test
-    void getAllBookingsForOwner_whenStateALL_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByOwner(any(), any())).thenReturn(List.of(booking));
+    void getAllBookings_whenOffsetPastLiveRows_thenArchivePagedByOwnOffset() {
+        ArchivedBooking archived = archivedBooking(9L, LocalDateTime.of(2020, 1, 1, 10, 0));
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of());
+        when(bookingListRepository.count(eq(Booking.class), any())).thenReturn(13L);
+        when(bookingListRepository.findAll(eq(ArchivedBooking.class), any(), any(), any()))
+                .thenReturn(List.of(archived));
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(2L, ALL, null, null);
+        List<BookingOutputDto> result = bookingServiceDb.getAllBookings(2L, ALL, 20, 10);
 
-        verify(bookingRepository).findByOwner(any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(List.of(BookingMapper.toBookingDto(BookingMapper.toBooking(archived))), result);
+        verify(bookingListRepository).findAll(eq(ArchivedBooking.class), any(), any(),
+                argThat(pageable -> pageable.getOffset() == 7 && pageable.getPageSize() == 10));
     }
 
     @Test
-    void getAllBookingsForOwner_whenStateCURRENT_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findCurrentByOwner(any(), any())).thenReturn(List.of(booking));
+    void getAllBookings_whenOffsetPageShort_thenArchiveReadFromStart() {
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of(booking));
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(2L, CURRENT, null, null);
+        bookingServiceDb.getAllBookings(2L, PAST, 20, 10);
 
-        verify(bookingRepository).findCurrentByOwner(any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        verify(bookingListRepository).findAll(eq(ArchivedBooking.class), any(), any(),
+                argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 9));
+        verify(bookingListRepository, never()).count(any(), any());
     }
 
     @Test
-    void getAllBookingsForOwner_whenStatePAST_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByOwnerAndEndIsBefore(any(), any(), any())).thenReturn(List.of(booking));
+    void getBookingInfo_whenBookingArchived_thenReturnedInfo() {
+        ArchivedBooking archived = archivedBooking(9L, LocalDateTime.of(2020, 1, 1, 10, 0));
+        when(bookingRepository.findById(any())).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findById(9L)).thenReturn(Optional.of(archived));
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(2L, PAST, null, null);
+        BookingOutputDto result = bookingServiceDb.getBookingInfo(9L, 2L);
 
-        verify(bookingRepository).findByOwnerAndEndIsBefore(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(9L, result.getId());
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
     }
 
     @Test
-    void getAllBookingsForOwner_whenStateFUTURE_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByOwnerAndStartIsAfter(any(), any(), any())).thenReturn(List.of(booking));
+    void getAllBookingsForOwner_whenUserNotFound_thenThrowException() {
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
+
+        assertThrows(MissingObjectException.class,
+                () -> bookingServiceDb.getAllBookingsForOwner(3L, ALL, null, null));
+    }
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(2L, FUTURE, null, null);
+    @Test
+    void getAllBookingsForOwner_whenStateCURRENT_thenArchiveNotQueried() {
+        when(bookingListRepository.findAll(eq(Booking.class), any(), any(), any())).thenReturn(List.of(booking));
 
-        verify(bookingRepository).findByOwnerAndStartIsAfter(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(1L, CURRENT, null, null);
+
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), result);
+        verify(bookingListRepository, never()).findAll(eq(ArchivedBooking.class), any(), any(), any());
     }
 
     @Test
-    void getAllBookingsForOwner_whenStateWAITING_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByOwnerAndStatus(any(), any(), any())).thenReturn(List.of(booking));
+    void getShortBookings_whenStateALL_thenReturnedProjectionWithoutLoadingUser() {
+        BookingShortDto shortDto = new BookingShortDto(3L, START, END, BookingStatus.WAITING, 2L, "name", 2L, "name2");
+        when(bookingListRepository.findShort(eq(Booking.class), any(), any())).thenReturn(List.of(shortDto));
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(2L, WAITING, null, null);
+        List<BookingShortDto> result = bookingServiceDb.getShortBookings(2L, ALL, null, null);
 
-        verify(bookingRepository).findByOwnerAndStatus(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+        assertEquals(List.of(shortDto), result);
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).getReferenceById(anyLong());
+        verify(bookingListRepository, never()).findAll(any(), any(), any(), any());
     }
 
+    @Test
+    void getShortBookings_whenUserNotFound_thenThrowException() {
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
+
+        assertThrows(MissingObjectException.class,
+                () -> bookingServiceDb.getShortBookings(3L, ALL, null, null));
+        verify(bookingListRepository, never()).findShort(any(), any(), any());
+    }
 
     @Test
-    void getAllBookingsForOwner_whenStateREJECTED_thenReturnedListBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByOwnerAndStatus(any(), any(), any())).thenReturn(List.of(booking));
+    void getShortBookingsForOwnerAfter_whenStateREJECTED_thenContinuedInArchive() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2022, 1, 1, 10, 0), 7L);
+        when(bookingListRepository.findShort(eq(Booking.class), any(), any())).thenReturn(List.of());
+
+        bookingServiceDb.getShortBookingsForOwnerAfter(1L, REJECTED, cursor, 10);
+
+        verify(bookingListRepository).findShort(eq(ArchivedBooking.class), any(),
+                argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 10));
+        verify(bookingListRepository, never()).count(any(), any());
+    }
 
-        List<BookingOutputDto> result = bookingServiceDb.getAllBookingsForOwner(2L, REJECTED, null, null);
+    private ArchivedBooking archivedBooking(Long id, LocalDateTime start) {
+        return ArchivedBooking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .owner(owner)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
 
-        verify(bookingRepository).findByOwnerAndStatus(any(), any(), any());
-        assertFalse(result.isEmpty());
-        assertEquals(BookingMapper.toBookingDto(booking), result.get(0));
+    private void stubStatusUpdate(BookingStatus status) {
+        when(bookingRepository.updateStatus(3L, 1L, BookingStatus.WAITING, status)).thenAnswer(invocation -> {
+            booking.setStatus(status);
+            return 1;
+        });
+        when(bookingRepository.findById(3L)).thenReturn(Optional.of(booking));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import ru.practicum.shareit.booking.dto.DateBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.paging.CustomPageRequest;
+import ru.practicum.shareit.user.model.User;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.BOOKER;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.OWNER;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.forList;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.userIs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {"shareit.booking-archive.batch-size=1", "shareit.booking-archive.skip-locked=false"})
+@Import({BookingArchiver.class, BookingRetention.class, BookingListRepository.class})
+class BookingArchiverTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private BookingListRepository bookingListRepository;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void init() {
+        now = LocalDateTime.now().withNano(0);
+        User owner = em.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = em.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        item = em.persist(Item.builder().name("item").description("description").available(true).owner(owner).build());
+    }
+
+    @Test
+    void archive_whenBookingsEndedBeforeCutoff_thenMovedInBatchesWithAnyStatus() {
+        Booking oldest = createBooking(now.minusYears(2), BookingStatus.APPROVED);
+        Booking old = createBooking(now.minusYears(1), BookingStatus.APPROVED);
+        Booking rejected = createBooking(now.minusYears(1), BookingStatus.REJECTED);
+        Booking recent = createBooking(now.minusDays(3), BookingStatus.APPROVED);
+
+        int archived = bookingArchiver.archive();
+        em.clear();
+
+        assertEquals(3, archived);
+        assertEquals(List.of(recent.getId()), bookingRepository.findAll().stream()
+                .map(Booking::getId)
+                .sorted()
+                .collect(Collectors.toList()));
+        ArchivedBooking moved = archivedBookingRepository.findById(old.getId()).orElseThrow();
+        assertEquals(old.getStart(), moved.getStart());
+        assertEquals(old.getEnd(), moved.getEnd());
+        assertEquals(booker, moved.getBooker());
+        assertEquals(item.getOwner(), moved.getOwner());
+        assertEquals(BookingStatus.APPROVED, moved.getStatus());
+        assertTrue(archivedBookingRepository.findById(oldest.getId()).isPresent());
+        assertEquals(BookingStatus.REJECTED, archivedBookingRepository.findById(rejected.getId())
+                .orElseThrow()
+                .getStatus());
+    }
+
+    @Test
+    void archive_whenBookingStartedEarlierStillRunning_thenNewerBookingsKept() {
+        Booking oldest = createBooking(now.minusYears(2), BookingStatus.APPROVED);
+        Booking running = em.persistAndFlush(new Booking(null, now.minusDays(400), now.plusDays(1), item, booker,
+                item.getOwner(), BookingStatus.APPROVED));
+        Booking old = createBooking(now.minusYears(1), BookingStatus.APPROVED);
+
+        assertEquals(1, bookingArchiver.archive());
+        em.clear();
+
+        assertTrue(archivedBookingRepository.findById(oldest.getId()).isPresent());
+        assertTrue(bookingRepository.findById(running.getId()).isPresent());
+        assertTrue(bookingRepository.findById(old.getId()).isPresent());
+    }
+
+    @Test
+    void archive_whenDone_thenEveryArchivedBookingStartsBeforeEveryLiveOne() {
+        createBooking(now.minusYears(2), BookingStatus.WAITING);
+        createBooking(now.minusYears(1), BookingStatus.APPROVED);
+        em.persistAndFlush(new Booking(null, now.minusDays(300), now.plusDays(1), item, booker, item.getOwner(),
+                BookingStatus.APPROVED));
+        createBooking(now.minusDays(200), BookingStatus.REJECTED);
+        createBooking(now.minusDays(3), BookingStatus.APPROVED);
+
+        bookingArchiver.archive();
+        em.clear();
+
+        LocalDateTime latestArchived = archivedBookingRepository.findAll().stream()
+                .map(ArchivedBooking::getStart)
+                .max(LocalDateTime::compareTo)
+                .orElseThrow();
+        LocalDateTime earliestLive = bookingRepository.findAll().stream()
+                .map(Booking::getStart)
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+        assertTrue(latestArchived.isBefore(earliestLive));
+    }
+
+    @Test
+    void archive_whenNothingEndedBeforeCutoff_thenNothingMoved() {
+        createBooking(now.minusDays(3), BookingStatus.APPROVED);
+
+        assertEquals(0, bookingArchiver.archive());
+        assertEquals(0, archivedBookingRepository.count());
+    }
+
+    @Test
+    void archivedFinders_whenBookingsArchived_thenFoundByBookerOwnerAndItem() {
+        Booking oldest = createBooking(now.minusYears(2), BookingStatus.APPROVED);
+        Booking old = createBooking(now.minusYears(1), BookingStatus.APPROVED);
+        bookingArchiver.archive();
+        em.clear();
+
+        List<ArchivedBooking> byBooker = bookingListRepository.findAll(ArchivedBooking.class,
+                ArchivedBooking.FULL_GRAPH, forList(BOOKER, booker.getId(), BookingState.ALL, now, null),
+                CustomPageRequest.create(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")));
+        List<DateBookingDto> last = archivedBookingRepository.findLastBookings(List.of(item.getId()));
+
+        assertEquals(List.of(old.getId(), oldest.getId()), byBooker.stream()
+                .map(ArchivedBooking::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(old.getId()), last.stream().map(DateBookingDto::getId).collect(Collectors.toList()));
+        assertEquals(2, bookingListRepository.summarize(ArchivedBooking.class,
+                userIs(OWNER, item.getOwner().getId()), now).getPast());
+        assertTrue(archivedBookingRepository.existsByBookerIdAndItemId(booker.getId(), item.getId()));
+        assertFalse(archivedBookingRepository.existsByBookerIdAndItemId(item.getOwner().getId(), item.getId()));
+    }
+
+    private Booking createBooking(LocalDateTime start, BookingStatus status) {
+        return em.persistAndFlush(new Booking(null, start, start.plusDays(1), item, booker, item.getOwner(), status));
+    }
+}
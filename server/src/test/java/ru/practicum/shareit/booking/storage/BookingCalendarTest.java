@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.booking.dto.DateBookingDto;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCalendarTest {
+    private static final long ITEM_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingCalendar bookingCalendar;
+    private LocalDate today;
+
+    @BeforeEach
+    void init() {
+        bookingCalendar = new BookingCalendar(bookingRepository, 100, Duration.ofMinutes(10));
+        today = LocalDate.now();
+    }
+
+    @Test
+    void getAvailability_whenBookingsLoaded_thenSplitPeriodIntoRanges() {
+        LocalDateTime start = today.plusDays(2).atTime(12, 0);
+        when(bookingRepository.findActiveBookings(eq(ITEM_ID), any(), eq(BookingCalendar.ACTIVE_STATUSES)))
+                .thenReturn(List.of(new DateBookingDto(1L, 2L, start, start.plusDays(1), ITEM_ID)));
+
+        List<AvailabilityDto> result = bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(5));
+
+        assertEquals(List.of(
+                new AvailabilityDto(today, today.plusDays(1), true),
+                new AvailabilityDto(today.plusDays(2), today.plusDays(3), false),
+                new AvailabilityDto(today.plusDays(4), today.plusDays(5), true)), result);
+    }
+
+    @Test
+    void getAvailability_whenBookingEndsAtMidnight_thenNextDayAvailable() {
+        when(bookingRepository.findActiveBookings(eq(ITEM_ID), any(), any()))
+                .thenReturn(List.of(new DateBookingDto(1L, 2L, today.plusDays(1).atStartOfDay(),
+                        today.plusDays(2).atStartOfDay(), ITEM_ID)));
+
+        List<AvailabilityDto> result = bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(2));
+
+        assertEquals(List.of(
+                new AvailabilityDto(today, today, true),
+                new AvailabilityDto(today.plusDays(1), today.plusDays(1), false),
+                new AvailabilityDto(today.plusDays(2), today.plusDays(2), true)), result);
+    }
+
+    @Test
+    void addBooking_whenCalendarLoaded_thenUpdateWithoutQuery() {
+        when(bookingRepository.findActiveBookings(eq(ITEM_ID), any(), any())).thenReturn(List.of());
+        bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(3));
+
+        bookingCalendar.addBooking(ITEM_ID, today.plusDays(1).atTime(10, 0), today.plusDays(1).atTime(18, 0));
+        List<AvailabilityDto> result = bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(3));
+
+        verify(bookingRepository, times(1)).findActiveBookings(eq(ITEM_ID), any(), any());
+        assertEquals(List.of(
+                new AvailabilityDto(today, today, true),
+                new AvailabilityDto(today.plusDays(1), today.plusDays(1), false),
+                new AvailabilityDto(today.plusDays(2), today.plusDays(3), true)), result);
+    }
+
+    @Test
+    void evict_whenCalendarLoaded_thenReloadOnNextRequest() {
+        when(bookingRepository.findActiveBookings(eq(ITEM_ID), any(), any())).thenReturn(List.of());
+        bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(3));
+
+        bookingCalendar.evict(ITEM_ID);
+        bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(3));
+
+        verify(bookingRepository, times(2)).findActiveBookings(eq(ITEM_ID), any(), any());
+    }
+
+    @Test
+    void getAvailability_whenCalendarExpired_thenReload() {
+        bookingCalendar = new BookingCalendar(bookingRepository, 100, Duration.ZERO);
+        when(bookingRepository.findActiveBookings(eq(ITEM_ID), any(), any())).thenReturn(List.of());
+
+        bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(3));
+        bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(3));
+
+        verify(bookingRepository, times(2)).findActiveBookings(eq(ITEM_ID), any(), any());
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.paging.Cursor;
+import ru.practicum.shareit.paging.CustomPageRequest;
+import ru.practicum.shareit.user.model.User;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.BOOKER;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.OWNER;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.forList;
+import static ru.practicum.shareit.booking.storage.BookingSpecifications.userIs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(BookingListRepository.class)
+class BookingListRepositoryTest {
+    private static final Sort BOOKING_ORDER = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingListRepository bookingListRepository;
+    private LocalDateTime now;
+    private User firstUser;
+    private User secondUser;
+    private Item firstItem;
+    private Booking rejected;
+    private Booking future;
+    private Booking current;
+    private Booking past;
+
+    @BeforeEach
+    void init() {
+        now = LocalDateTime.now().withNano(0);
+        firstUser = em.persist(User.builder().name("Имя первого").email("first@email.com").build());
+        secondUser = em.persist(User.builder().name("Имя второго").email("second@email.com").build());
+        firstItem = em.persist(Item.builder().name("Название первого").description("Описание первого")
+                .available(true).owner(secondUser).build());
+        Item secondItem = em.persist(Item.builder().name("Название второго").description("Описание второго")
+                .available(true).owner(firstUser).build());
+        rejected = createBooking(now.minusYears(1), now.minusYears(1).plusDays(2), firstItem, REJECTED);
+        future = createBooking(now.plusYears(1), now.plusYears(1).plusDays(2), secondItem, WAITING);
+        current = createBooking(now.minusYears(1), now.plusYears(1), secondItem, WAITING);
+        past = createBooking(now.minusMonths(6), now.minusMonths(6).plusDays(2), firstItem, APPROVED);
+        em.clear();
+    }
+
+    @Test
+    void findAll_whenStateALL_thenOrderedByStartAndIdDesc() {
+        assertEquals(ids(future, past, current, rejected), ids(find(BOOKER, firstUser, BookingState.ALL, null, 10)));
+    }
+
+    @Test
+    void findAll_whenEveryState_thenFilteredByState() {
+        assertEquals(ids(current), ids(find(BOOKER, firstUser, BookingState.CURRENT, null, 10)));
+        assertEquals(ids(past, rejected), ids(find(BOOKER, firstUser, BookingState.PAST, null, 10)));
+        assertEquals(ids(future), ids(find(BOOKER, firstUser, BookingState.FUTURE, null, 10)));
+        assertEquals(ids(future, current), ids(find(BOOKER, firstUser, BookingState.WAITING, null, 10)));
+        assertEquals(ids(rejected), ids(find(BOOKER, firstUser, BookingState.REJECTED, null, 10)));
+    }
+
+    @Test
+    void findAll_whenOwner_thenFilteredByItemOwner() {
+        assertEquals(ids(past, rejected), ids(find(OWNER, secondUser, BookingState.ALL, null, 10)));
+        assertEquals(ids(current), ids(find(OWNER, firstUser, BookingState.CURRENT, null, 10)));
+        assertEquals(ids(rejected), ids(find(OWNER, secondUser, BookingState.REJECTED, null, 10)));
+    }
+
+    @Test
+    void findAll_whenCursorPresent_thenReturnedRowsAfterCursor() {
+        List<Booking> first = find(BOOKER, firstUser, BookingState.ALL, new Cursor(now.plusYears(10), Long.MAX_VALUE), 2);
+        Booking last = first.get(first.size() - 1);
+        List<Booking> second = find(BOOKER, firstUser, BookingState.ALL, new Cursor(last.getStart(), last.getId()), 2);
+
+        assertEquals(ids(future, past), ids(first));
+        assertEquals(ids(current, rejected), ids(second));
+    }
+
+    @Test
+    void findAll_whenCursorOnSameStart_thenSkipLowerIdsOnly() {
+        Cursor cursor = new Cursor(rejected.getStart(), current.getId());
+
+        assertEquals(ids(rejected), ids(find(BOOKER, firstUser, BookingState.ALL, cursor, 10)));
+    }
+
+    @Test
+    void findShort_whenOwner_thenReturnedIdsAndNames() {
+        List<BookingShortDto> result = bookingListRepository.findShort(Booking.class,
+                forList(OWNER, secondUser.getId(), BookingState.ALL, now, null), page(10));
+
+        assertEquals(List.of(new BookingShortDto(past.getId(), past.getStart(), past.getEnd(), APPROVED,
+                        firstItem.getId(), "Название первого", firstUser.getId(), "Имя первого"),
+                new BookingShortDto(rejected.getId(), rejected.getStart(), rejected.getEnd(), REJECTED,
+                        firstItem.getId(), "Название первого", firstUser.getId(), "Имя первого")),
+                result);
+    }
+
+    @Test
+    void findShort_whenSameState_thenMatchesFullView() {
+        for (BookingState state : BookingState.values()) {
+            List<BookingShortDto> result = bookingListRepository.findShort(Booking.class,
+                    forList(BOOKER, firstUser.getId(), state, now, null), page(10));
+
+            assertEquals(ids(find(BOOKER, firstUser, state, null, 10)), result.stream()
+                    .map(BookingShortDto::getId)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void summarize_whenBookingsInEveryState_thenCountedAsLists() {
+        assertEquals(new BookingSummaryDto(4L, 1L, 2L, 1L, 2L, 1L), summarize(BOOKER, firstUser));
+        assertEquals(new BookingSummaryDto(2L, 1L, 0L, 1L, 2L, 0L), summarize(OWNER, firstUser));
+        assertEquals(new BookingSummaryDto(2L, 0L, 2L, 0L, 0L, 1L), summarize(OWNER, secondUser));
+    }
+
+    @Test
+    void summarize_whenNoBookings_thenZeroes() {
+        assertEquals(new BookingSummaryDto(), bookingListRepository.summarize(Booking.class,
+                userIs(OWNER, -1L), now));
+    }
+
+    private List<Booking> find(String user, User target, BookingState state, Cursor after, int size) {
+        return bookingListRepository.findAll(Booking.class, Booking.FULL_GRAPH,
+                forList(user, target.getId(), state, now, after), page(size));
+    }
+
+    private BookingSummaryDto summarize(String user, User target) {
+        return bookingListRepository.summarize(Booking.class, userIs(user, target.getId()), now);
+    }
+
+    private Pageable page(int size) {
+        return CustomPageRequest.create(0, size, BOOKING_ORDER);
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end, Item item, BookingStatus status) {
+        return em.persistAndFlush(new Booking(null, start, end, item, firstUser, item.getOwner(), status));
+    }
+
+    private static List<Long> ids(Booking... bookings) {
+        return List.of(bookings).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+}
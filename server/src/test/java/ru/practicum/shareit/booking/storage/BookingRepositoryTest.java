@@ -6,25 +6,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Pageable;
 
+import ru.practicum.shareit.booking.dto.DateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
-import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class BookingRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
     @Autowired
     private TestEntityManager entityManager;
     @Autowired
@@ -40,7 +47,7 @@ public class BookingRepositoryTest {
     private Booking firstBooking;
     private Booking secondBooking;
     private Booking thirdBooking;
-    private Pageable pageable;
+    private Booking fourthBooking;
 
     @BeforeEach
     public void beforeEach() {
@@ -74,16 +81,18 @@ public class BookingRepositoryTest {
                         LocalDateTime.of(2022, 1, 3, 1, 1, 1),
                         firstItem,
                         firstUser,
+                        firstItem.getOwner(),
                         REJECTED
                 )
         );
         entityManager.persist(firstBooking);
         secondBooking = bookingRepository.save(new Booking(
                         2L,
-                        LocalDateTime.of(2024, 1, 1, 1, 1, 1),
-                        LocalDateTime.of(2024, 1, 3, 1, 1, 1),
+                        NOW.plusYears(1),
+                        NOW.plusYears(1).plusDays(2),
                         secondItem,
                         firstUser,
+                        secondItem.getOwner(),
                         WAITING
                 )
         );
@@ -91,15 +100,26 @@ public class BookingRepositoryTest {
         thirdBooking = bookingRepository.save(new Booking(
                         3L,
                         LocalDateTime.of(2022, 1, 1, 1, 1, 1),
-                        LocalDateTime.of(2024, 1, 3, 1, 1, 1),
+                        NOW.plusYears(1).plusDays(2),
                         secondItem,
                         firstUser,
+                        secondItem.getOwner(),
                         WAITING
                 )
         );
         entityManager.persist(thirdBooking);
+        fourthBooking = bookingRepository.save(new Booking(
+                        4L,
+                        LocalDateTime.of(2022, 2, 1, 1, 1, 1),
+                        LocalDateTime.of(2022, 2, 3, 1, 1, 1),
+                        firstItem,
+                        firstUser,
+                        firstItem.getOwner(),
+                        APPROVED
+                )
+        );
+        entityManager.persist(fourthBooking);
         entityManager.getEntityManager().getTransaction().commit();
-        pageable = CustomPageRequest.create(0, 10);
     }
 
     @AfterEach
@@ -110,40 +130,6 @@ public class BookingRepositoryTest {
 
     }
 
-    @Test
-    void findByBooker() {
-        List<Booking> result = bookingRepository.findByBooker(firstUser, pageable);
-        assertThat(result, hasItems(firstBooking, secondBooking, thirdBooking));
-    }
-
-    @Test
-    void findByBookerAndEndIsBefore() {
-        List<Booking> result = bookingRepository.findByBookerAndEndIsBefore(firstUser, LocalDateTime.now(), pageable);
-        assertThat(result, hasItems(firstBooking));
-        assertThat(result, not(hasItems(secondBooking, thirdBooking)));
-    }
-
-    @Test
-    void findByBookerAndStartIsAfter() {
-        List<Booking> result = bookingRepository.findByBookerAndStartIsAfter(firstUser, LocalDateTime.now(), pageable);
-        assertThat(result, hasItems(secondBooking));
-        assertThat(result, not(hasItems(firstBooking, thirdBooking)));
-    }
-
-    @Test
-    void findCurrentByBooker() {
-        List<Booking> result = bookingRepository.findCurrentByBooker(firstUser, pageable);
-        assertThat(result, hasItems(thirdBooking));
-        assertThat(result, not(hasItems(secondBooking, firstBooking)));
-    }
-
-    @Test
-    void findByBookerAndStatus() {
-        List<Booking> result = bookingRepository.findByBookerAndStatus(firstUser, WAITING, pageable);
-        assertThat(result, hasItems(thirdBooking, secondBooking));
-        assertThat(result, not(hasItems(firstBooking)));
-    }
-
     @Test
     void findByBookerAndItem() {
         List<Booking> result = bookingRepository.findByBookerAndItem(firstUser, firstItem);
@@ -152,51 +138,35 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findByOwner() {
-        List<Booking> result = bookingRepository.findByOwner(secondUser, pageable);
-        assertThat(result, hasItems(firstBooking));
-        assertThat(result, not(hasItems(secondBooking, thirdBooking)));
-    }
-
-    @Test
-    void findByOwnerAndEndIsBefore() {
-        List<Booking> result = bookingRepository.findByOwnerAndEndIsBefore(secondUser, LocalDateTime.now(), pageable);
-        assertThat(result, hasItems(firstBooking));
-        assertThat(result, not(hasItems(secondBooking, thirdBooking)));
-    }
-
-    @Test
-    void findByOwnerAndStartIsAfter() {
-        List<Booking> result = bookingRepository.findByOwnerAndStartIsAfter(firstUser, LocalDateTime.now(), pageable);
-        assertThat(result, hasItems(secondBooking));
-        assertThat(result, not(hasItems(firstBooking, thirdBooking)));
+    void existsOverlapping() {
+        List<BookingStatus> active = List.of(WAITING, APPROVED);
+        LocalDateTime start = secondBooking.getStart();
+        LocalDateTime end = secondBooking.getEnd();
+
+        assertTrue(bookingRepository.existsOverlapping(secondItem.getId(), start.plusDays(1), end.plusDays(1), active));
+        assertTrue(bookingRepository.existsOverlapping(secondItem.getId(), start.minusDays(1), start.plusHours(1), active));
+        assertFalse(bookingRepository.existsOverlapping(secondItem.getId(), end.plusDays(3), end.plusDays(4), active));
+        assertFalse(bookingRepository.existsOverlapping(firstItem.getId(), firstBooking.getStart(),
+                firstBooking.getEnd(), active));
     }
 
     @Test
-    void findCurrentByOwner() {
-        List<Booking> result = bookingRepository.findCurrentByOwner(firstUser, pageable);
-        assertThat(result, hasItems(thirdBooking));
-        assertThat(result, not(hasItems(secondBooking, firstBooking)));
-    }
-
-    @Test
-    void findByOwnerAndStatus() {
-        List<Booking> result = bookingRepository.findByOwnerAndStatus(secondUser, REJECTED, pageable);
-        assertThat(result, hasItems(firstBooking));
-        assertThat(result, not(hasItems(secondBooking, thirdBooking)));
-    }
-
-    @Test
-    void findByItemAndEndIsBefore() {
-        List<Booking> result = bookingRepository.findByItemAndEndIsBefore(firstItem, LocalDateTime.now());
-        assertThat(result, hasItems(firstBooking));
-        assertThat(result, not(hasItems(secondBooking, thirdBooking)));
+    void findLastBookings() {
+        List<DateBookingDto> result = bookingRepository.findLastBookings(
+                List.of(firstItem.getId(), secondItem.getId()), LocalDateTime.now());
+        assertThat(result, hasSize(1));
+        assertEquals(fourthBooking.getId(), result.get(0).getId());
+        assertEquals(firstItem.getId(), result.get(0).getItemId());
+        assertEquals(firstUser.getId(), result.get(0).getBookerId());
     }
 
     @Test
-    void findByItemAndStartIsAfter() {
-        List<Booking> result = bookingRepository.findByItemAndStartIsAfter(secondItem, LocalDateTime.now());
-        assertThat(result, hasItems(secondBooking));
-        assertThat(result, not(hasItems(firstBooking, thirdBooking)));
+    void findNextBookings() {
+        List<DateBookingDto> result = bookingRepository.findNextBookings(
+                List.of(firstItem.getId(), secondItem.getId()), LocalDateTime.now());
+        assertThat(result, hasSize(1));
+        assertEquals(secondBooking.getId(), result.get(0).getId());
+        assertEquals(secondItem.getId(), result.get(0).getItemId());
+        assertEquals(secondBooking.getStart(), result.get(0).getStart());
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
@@ -17,6 +18,7 @@ import java.util.List;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
 class CommentRepositoryTest {
@@ -66,4 +68,14 @@ class CommentRepositoryTest {
         List<Comment> comments = commentRepository.findByItemId(1L);
         assertThat(comments, hasItems(comment));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findDtoByItemIdIn() {
+        List<ItemCommentDto> comments = commentRepository.findDtoByItemIdIn(List.of(comment.getItem().getId(), 100L));
+        assertEquals(1, comments.size());
+        assertEquals(comment.getItem().getId(), comments.get(0).getItemId());
+        assertEquals(comment.getId(), comments.get(0).getId());
+        assertEquals(comment.getText(), comments.get(0).getText());
+        assertEquals(comment.getAuthor().getName(), comments.get(0).getAuthorName());
+    }
+}
@@ -14,14 +14,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.LinkedMultiValueMap;
 import ru.practicum.shareit.exception.MissingObjectException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.CommentService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -251,9 +255,43 @@ class ItemControllerTest {
                 .getResponse()
                 .getContentAsString();
         verify(itemService).getItemById(anyLong(), anyLong());
+        verify(itemService, never()).expandOwners(any());
         assertEquals(objectMapper.writeValueAsString(itemDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getItemById_whenExpandOwner_thenReturnedItemWithOwner() {
+        ItemDto itemDto = ItemMapper.toItemDto(itemCorrect);
+        ItemDto expanded = ItemMapper.withOwner(itemDto, new UserDto(1L, "name", "name@mail.ru"));
+        when(itemService.getItemById(1L, 1L)).thenReturn(itemDto);
+        when(itemService.expandOwners(List.of(itemDto))).thenReturn(List.of(expanded));
+
+        String result = mockMvc.perform(get("/items/{userId}", 1)
+                        .param("expand", "owner")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        verify(itemService).expandOwners(List.of(itemDto));
+        assertEquals(objectMapper.writeValueAsString(expanded), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenExpandUnknown_thenReturnedClientError() {
+        String result = mockMvc.perform(get("/items/{userId}", 1)
+                        .param("expand", "booker")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        verify(itemService, never()).getItemById(anyLong(), anyLong());
+        assertEquals("{\"error\":\"Unknown expand: booker\"}", result);
+    }
+
     @SneakyThrows
     @Test
     void getItemById_whenOwnerNotPresent_thenReturnedClientError() {
@@ -318,4 +356,41 @@ class ItemControllerTest {
         verify(commentService, never()).addComment(anyLong(), anyLong(), any());
         assertEquals("{\"error\":\"Required request header 'X-Sharer-User-Id' for method parameter type Long is not present\"}", result);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenPeriodSet_thenReturnedRanges() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(5);
+        List<AvailabilityDto> ranges = List.of(
+                new AvailabilityDto(from, from.plusDays(1), true),
+                new AvailabilityDto(from.plusDays(2), to, false));
+        when(itemService.getAvailability(1L, from, to)).thenReturn(ranges);
+
+        String result = mockMvc.perform(get("/items/{itemId}/availability", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(ranges), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void getSuggestions_whenLimitNotPresent_thenUseDefaultLimit() {
+        List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto(1L, "Дрель"));
+        when(itemService.getSuggestions("дре", 10)).thenReturn(suggestions);
+
+        String result = mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(suggestions), result);
+    }
+}
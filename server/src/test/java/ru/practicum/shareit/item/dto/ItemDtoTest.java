@@ -6,7 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -27,7 +27,8 @@ public class ItemDtoTest {
                 "Описание",
                 true,
                 1L,
-                new User(1L, "name", "email@mail.ru"),
+                2L,
+                null,
                 new ArrayList<>(),
                 null,
                 null);
@@ -38,10 +39,26 @@ public class ItemDtoTest {
         assertThat(itemDtoResult).extractingJsonPathStringValue("$.name").isEqualTo(itemDto.getName());
         assertThat(itemDtoResult).extractingJsonPathStringValue("$.description").isEqualTo(itemDto.getDescription());
         assertThat(itemDtoResult).extractingJsonPathBooleanValue("$.available").isTrue();
-        assertThat(itemDtoResult).extractingJsonPathNumberValue("$.owner.id").isEqualTo(1);
+        assertThat(itemDtoResult).extractingJsonPathNumberValue("$.ownerId").isEqualTo(2);
+        assertThat(itemDtoResult).doesNotHaveJsonPath("$.owner");
         assertThat(itemDtoResult).extractingJsonPathNumberValue("$.requestId").isEqualTo(itemDto.getRequestId().intValue());
         assertThat(itemDtoResult).extractingJsonPathValue("$.lastBooking").isNull();
         assertThat(itemDtoResult).extractingJsonPathValue("$.nextBooking").isNull();
         assertThat(itemDtoResult).extractingJsonPathArrayValue("$.comments").isEqualTo(itemDto.getComments());
     }
+
+    @Test
+    public void itemDtoWithOwnerJsonTest() throws IOException {
+        ItemDto itemDto = ItemDto.builder()
+                .id(1L)
+                .ownerId(2L)
+                .owner(new UserDto(2L, "name", "email@mail.ru"))
+                .build();
+
+        JsonContent<ItemDto> itemDtoResult = jtItemDto.write(itemDto);
+
+        assertThat(itemDtoResult).extractingJsonPathNumberValue("$.ownerId").isEqualTo(2);
+        assertThat(itemDtoResult).extractingJsonPathNumberValue("$.owner.id").isEqualTo(2);
+        assertThat(itemDtoResult).extractingJsonPathStringValue("$.owner.name").isEqualTo("name");
+    }
 }
\ No newline at end of file
@@ -55,7 +55,8 @@ class ItemMapperTest {
         assertEquals("name", itemDto.getName());
         assertEquals("desc", itemDto.getDescription());
         assertTrue(itemDto.getAvailable());
-        assertEquals(user, itemDto.getOwner());
+        assertEquals(user.getId(), itemDto.getOwnerId());
+        assertNull(itemDto.getOwner());
         assertEquals(1L, itemDto.getRequestId());
         assertNull(itemDto.getLastBooking());
         assertNull(itemDto.getNextBooking());
@@ -70,7 +71,8 @@ class ItemMapperTest {
         assertEquals("name", itemDto.getName());
         assertEquals("desc", itemDto.getDescription());
         assertTrue(itemDto.getAvailable());
-        assertEquals(user, itemDto.getOwner());
+        assertEquals(user.getId(), itemDto.getOwnerId());
+        assertNull(itemDto.getOwner());
         assertEquals(1L, itemDto.getRequestId());
         assertEquals(comments, itemDto.getComments());
         assertNull(itemDto.getLastBooking());
@@ -85,7 +87,8 @@ class ItemMapperTest {
         assertEquals("name", itemDto.getName());
         assertEquals("desc", itemDto.getDescription());
         assertTrue(itemDto.getAvailable());
-        assertEquals(user, itemDto.getOwner());
+        assertEquals(user.getId(), itemDto.getOwnerId());
+        assertNull(itemDto.getOwner());
         assertEquals(1L, itemDto.getRequestId());
         assertEquals(comments, itemDto.getComments());
         assertEquals(bookingDtoLast, itemDto.getLastBooking());
@@ -96,7 +99,7 @@ class ItemMapperTest {
     void toItem() {
         ItemDto itemDto = ItemDto.builder()
                 .id(1L)
-                .owner(user)
+                .ownerId(user.getId())
                 .requestId(request.getId())
                 .nextBooking(bookingDtoNext)
                 .lastBooking(bookingDtoLast)
@@ -106,7 +109,7 @@ class ItemMapperTest {
                 .available(true)
                 .build();
 
-        Item item = ItemMapper.toItem(itemDto, request);
+        Item item = ItemMapper.toItem(itemDto, user, request);
 
         assertEquals(this.item, item);
     }
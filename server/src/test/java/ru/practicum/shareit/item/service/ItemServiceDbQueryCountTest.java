@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import ru.practicum.shareit.StatementCountingTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingCalendar;
+import ru.practicum.shareit.booking.storage.BookingRetention;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemNameIndex;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@Import({ItemServiceDb.class, BookingRetention.class, BookingCalendar.class, ItemNameIndex.class, ItemSearchCache.class, UserExistenceIndex.class})
+class ItemServiceDbQueryCountTest extends StatementCountingTest {
+    @Autowired
+    private ItemServiceDb itemService;
+    private User booker;
+
+    @BeforeEach
+    void init() {
+        booker = persistUser("booker");
+    }
+
+    @Test
+    void getItemsByUser_whenOwnerHasMoreItems_thenQueryCountDoesNotGrow() {
+        User smallOwner = createOwnerWithItems("small", 2);
+        User bigOwner = createOwnerWithItems("big", 20);
+
+        long smallCount = countStatements(() -> itemService.getItemsByUser(smallOwner.getId(), 0, 50));
+        long bigCount = countStatements(() -> itemService.getItemsByUser(bigOwner.getId(), 0, 50));
+
+        assertEquals(smallCount, bigCount);
+    }
+
+    @Test
+    void getItemsByUser_whenItemsHaveHistory_thenFillCommentsAndBookings() {
+        User owner = createOwnerWithItems("owner", 3);
+        em.clear();
+
+        List<ItemDto> result = itemService.getItemsByUser(owner.getId(), 0, 10);
+
+        assertEquals(3, result.size());
+        for (ItemDto item : result) {
+            assertEquals(1, item.getComments().size());
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+        }
+    }
+
+    @Test
+    void getItemByText_whenPageHasMoreItems_thenQueryCountDoesNotGrow() {
+        createOwnerWithItems("owner", 20);
+
+        long smallCount = countSearchStatements(2);
+        long bigCount = countSearchStatements(20);
+
+        assertEquals(smallCount, bigCount);
+    }
+
+    @Test
+    void getItemByText_whenItemsHaveComments_thenFillComments() {
+        createOwnerWithItems("owner", 3);
+        em.clear();
+
+        List<ItemDto> result = itemService.getItemByText("description", 0, 10);
+
+        assertEquals(3, result.size());
+        for (ItemDto item : result) {
+            assertEquals(1, item.getComments().size());
+        }
+    }
+
+    private long countSearchStatements(int size) {
+        return countStatements(() -> assertEquals(size, itemService.getItemByText("description", 0, size).size()));
+    }
+
+    private User createOwnerWithItems(String name, int count) {
+        User owner = persistUser(name);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Item item = persistItem("item " + i, owner, null);
+            em.persist(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, owner, BookingStatus.APPROVED));
+            em.persist(new Booking(null, now.plusDays(2), now.plusDays(3), item, booker, owner, BookingStatus.WAITING));
+            em.persist(new Comment(null, "comment " + i, item, booker, now.minusDays(1)));
+        }
+        em.flush();
+        return owner;
+    }
+}
@@ -6,31 +6,45 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.dto.DateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingCalendar;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingRetention;
 import ru.practicum.shareit.exception.InvalidRequestException;
 import ru.practicum.shareit.exception.MissingObjectException;
 import ru.practicum.shareit.exception.OtherDataException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.storage.CommentRepository;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemNameIndex;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -58,6 +72,18 @@ public class ItemServiceDbTest {
     private BookingRepository bookingRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private BookingCalendar bookingCalendar;
+    @Mock
+    private ItemNameIndex itemNameIndex;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingRetention bookingRetention;
+    @Spy
+    private ItemSearchCache itemSearchCache = new ItemSearchCache(100, Duration.ofMinutes(5));
 
     @Mock
     private User owner;
@@ -73,7 +99,7 @@ public class ItemServiceDbTest {
             .name("name").description("desc")
             .available(true)
             .comments(new ArrayList<>())
-            .owner(User.builder().id(1L).name("name").email("name@mail.ru").build())
+            .ownerId(OWNER_ID)
             .lastBooking(null)
             .nextBooking(null)
             .requestId(null)
@@ -92,25 +118,58 @@ public class ItemServiceDbTest {
         when(itemRepository.save(any())).thenAnswer(input -> input.getArguments()[0]);
         when(itemRequestRepository.findById(eq(REQUEST_ID))).thenReturn(Optional.of(request));
         when(commentRepository.save(any())).thenAnswer(input -> input.getArguments()[0]);
+        when(userExistenceIndex.exists(anyLong())).thenReturn(true);
+        doCallRealMethod().when(userExistenceIndex).check(any());
+        when(bookingRetention.cutoff()).thenReturn(LocalDateTime.now().minusDays(180));
     }
 
     @Test
     void getItemsByUser_whenUserNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
         assertThrows(
                 MissingObjectException.class,
                 () -> itemServiceDb.getItemsByUser(OWNER_ID, null, null));
-        verify(itemRepository, never()).findByOwner(any(), any());
+        verify(itemRepository, never()).findDtoByOwnerId(any(), any());
     }
 
     @Test
     void getItemsByUser_whenCorrect_thenReturnedItems() {
+        List<ItemDto> result = itemServiceDb.getItemsByUser(OWNER_ID, null, null);
+
+        verify(itemRepository).findDtoByOwnerId(eq(OWNER_ID), any());
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).getReferenceById(anyLong());
+        assertEquals(new ArrayList<>(), result);
+    }
+
+    @Test
+    void getItemsByUser_whenItemsFound_thenLoadCommentsAndBookingsOnce() {
+        User booker = User.builder().id(2L).build();
+        Item secondItem = Item.builder().id(2L).name("second").description("second").available(true)
+                .owner(outRep.getOwner()).build();
+        DateBookingDto last = new DateBookingDto(1L, 2L,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), ITEM_ID);
+        DateBookingDto next = new DateBookingDto(2L, 2L,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 2L);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(itemRepository.findDtoByOwnerId(any(), any())).thenReturn(List.of(ItemMapper.toItemDto(outRep), ItemMapper.toItemDto(secondItem)));
+        when(commentRepository.findDtoByItemIdIn(any())).thenReturn(List.of(
+                new ItemCommentDto(2L, 1L, "text", "booker", LocalDateTime.now())));
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(List.of(last));
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(List.of(next));
 
         List<ItemDto> result = itemServiceDb.getItemsByUser(OWNER_ID, null, null);
 
-        verify(itemRepository).findByOwner(any(), any());
-        assertEquals(new ArrayList<>(), result);
+        verify(commentRepository).findDtoByItemIdIn(List.of(ITEM_ID, 2L));
+        verify(bookingRepository).findLastBookings(eq(List.of(ITEM_ID, 2L)), any());
+        verify(bookingRepository).findNextBookings(eq(List.of(ITEM_ID, 2L)), any());
+        assertEquals(2, result.size());
+        assertEquals(last, result.get(0).getLastBooking());
+        assertNull(result.get(0).getNextBooking());
+        assertTrue(result.get(0).getComments().isEmpty());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(next, result.get(1).getNextBooking());
+        assertEquals(1, result.get(1).getComments().size());
     }
 
     @Test
@@ -118,7 +177,7 @@ public class ItemServiceDbTest {
         assertThrows(
                 InvalidRequestException.class,
                 () -> itemServiceDb.getItemsByUser(OWNER_ID, 0, null));
-        verify(itemRepository, never()).findByOwner(any(), any());
+        verify(itemRepository, never()).findDtoByOwnerId(any(), any());
     }
 
     @Test
@@ -126,7 +185,7 @@ public class ItemServiceDbTest {
         assertThrows(
                 InvalidRequestException.class,
                 () -> itemServiceDb.getItemsByUser(OWNER_ID, null, 1));
-        verify(itemRepository, never()).findByOwner(any(), any());
+        verify(itemRepository, never()).findDtoByOwnerId(any(), any());
     }
 
     @Test
@@ -134,7 +193,7 @@ public class ItemServiceDbTest {
         assertThrows(
                 InvalidRequestException.class,
                 () -> itemServiceDb.getItemsByUser(OWNER_ID, -1, 1));
-        verify(itemRepository, never()).findByOwner(any(), any());
+        verify(itemRepository, never()).findDtoByOwnerId(any(), any());
     }
 
     @Test
@@ -142,7 +201,7 @@ public class ItemServiceDbTest {
         assertThrows(
                 InvalidRequestException.class,
                 () -> itemServiceDb.getItemsByUser(OWNER_ID, 0, 0));
-        verify(itemRepository, never()).findByOwner(any(), any());
+        verify(itemRepository, never()).findDtoByOwnerId(any(), any());
     }
 
 
@@ -156,7 +215,44 @@ public class ItemServiceDbTest {
     @Test
     void getItemByText_whenCorrect_thenReturnedResultSearch() {
         itemServiceDb.getItemByText("TEXT123a", null, null);
-        verify(itemRepository).search(eq("text123a"), any());
+        verify(itemRepository).search(eq("TEXT123A"), any());
+    }
+
+    @Test
+    void getItemByText_whenSeveralItemsFound_thenCommentsLoadedInOneQuery() {
+        Item second = Item.builder()
+                .id(2L)
+                .name("test 2")
+                .description("test 2")
+                .available(true)
+                .owner(outRep.getOwner())
+                .build();
+        when(itemRepository.search(any(), any()))
+                .thenReturn(List.of(ItemMapper.toItemDto(outRep), ItemMapper.toItemDto(second)));
+        when(commentRepository.findDtoByItemIdIn(any())).thenReturn(List.of(
+                new ItemCommentDto(2L, 1L, "comment", "name", LocalDateTime.now())));
+
+        List<ItemDto> result = itemServiceDb.getItemByText("test", 0, 10);
+
+        verify(commentRepository).findDtoByItemIdIn(List.of(ITEM_ID, 2L));
+        verify(commentRepository, never()).findByItemId(anyLong());
+        assertEquals(0, result.get(0).getComments().size());
+        assertEquals(1, result.get(1).getComments().size());
+    }
+
+    @Test
+    void getItemByText_whenRepeatedAndMatchingItemUpdated_thenSearchAgain() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(outRep));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(itemRepository.getItemOwner(anyLong())).thenReturn(owner);
+
+        itemServiceDb.getItemByText("Test", 0, 10);
+        itemServiceDb.getItemByText("test", 0, 10);
+        verify(itemRepository, times(1)).search(eq("TEST"), any());
+
+        itemServiceDb.updateItem(OWNER_ID, ItemDto.builder().available(true).build(), ITEM_ID);
+        itemServiceDb.getItemByText("test", 0, 10);
+        verify(itemRepository, times(2)).search(eq("TEST"), any());
     }
 
     @Test
@@ -166,19 +262,20 @@ public class ItemServiceDbTest {
                 .available(true)
                 .description("test")
                 .name("test")
-                .request(new ItemRequest())
+                .request(ItemRequest.builder().id(REQUEST_ID).build())
                 .owner(User.builder().id(1L).email("test@mail.ru").name("name").build())
                 .build();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item1));
+        when(itemRepository.findDtoById(anyLong())).thenReturn(Optional.of(ItemMapper.toItemDto(item1)));
 
         itemServiceDb.getItemById(ITEM_ID, OWNER_ID);
 
-        verify(itemRepository).findById(anyLong());
+        verify(itemRepository).findDtoById(anyLong());
+        verify(itemRepository, never()).findById(anyLong());
     }
 
     @Test
     void getItemById_whenItemNotFound_thenThrowException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findDtoById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(
                 MissingObjectException.class,
@@ -187,30 +284,92 @@ public class ItemServiceDbTest {
 
     @Test
     void getItemById_whenUserNotOwner_thenThrowException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(outRep));
+        when(itemRepository.findDtoById(anyLong())).thenReturn(Optional.of(ItemMapper.toItemDto(outRep)));
         ItemDto result = itemServiceDb.getItemById(1L, 2L);
 
+        verify(bookingRepository, never()).findLastBookings(any(), any());
+        verify(bookingRepository, never()).findNextBookings(any(), any());
         assertNull(result.getLastBooking());
         assertNull(result.getNextBooking());
     }
 
     @Test
     void getItemById_whenUserOwner_thenThrowException() {
-        Booking booking = Booking.builder()
+        DateBookingDto booking = DateBookingDto.builder()
                 .id(1L)
-                .status(BookingStatus.APPROVED)
-                .item(item)
+                .bookerId(2L)
+                .itemId(ITEM_ID)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now())
-                .booker(new User())
                 .build();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(outRep));
-        when(bookingRepository.findByItemAndEndIsBefore(any(), any())).thenReturn(List.of(booking));
-        when(bookingRepository.findByItemAndStartIsAfter(any(), any())).thenReturn(List.of(booking));
+        when(itemRepository.findDtoById(anyLong())).thenReturn(Optional.of(ItemMapper.toItemDto(outRep)));
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(List.of(booking));
+        ItemDto result = itemServiceDb.getItemById(1L, 1L);
+
+        assertEquals(booking, result.getLastBooking());
+        assertEquals(booking, result.getNextBooking());
+    }
+
+    @Test
+    void getItemById_whenLastBookingArchived_thenReturnedFromArchive() {
+        DateBookingDto archived = DateBookingDto.builder()
+                .id(1L)
+                .bookerId(2L)
+                .itemId(ITEM_ID)
+                .start(LocalDateTime.now().minusYears(2))
+                .end(LocalDateTime.now().minusYears(2).plusDays(1))
+                .build();
+        when(itemRepository.findDtoById(anyLong())).thenReturn(Optional.of(ItemMapper.toItemDto(outRep)));
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(List.of());
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(List.of());
+        when(archivedBookingRepository.findLastBookings(List.of(ITEM_ID))).thenReturn(List.of(archived));
+
+        ItemDto result = itemServiceDb.getItemById(1L, 1L);
+
+        assertEquals(archived, result.getLastBooking());
+    }
+
+    @Test
+    void getItemById_whenLastBookingNewerThanCutoff_thenArchiveNotQueried() {
+        DateBookingDto last = DateBookingDto.builder()
+                .id(1L)
+                .bookerId(2L)
+                .itemId(ITEM_ID)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build();
+        when(itemRepository.findDtoById(anyLong())).thenReturn(Optional.of(ItemMapper.toItemDto(outRep)));
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(List.of(last));
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(List.of());
+
         ItemDto result = itemServiceDb.getItemById(1L, 1L);
 
-        assertEquals(BookingMapper.toDateBookingDto(booking), result.getLastBooking());
-        assertEquals(BookingMapper.toDateBookingDto(booking), result.getNextBooking());
+        assertEquals(last, result.getLastBooking());
+        verify(archivedBookingRepository, never()).findLastBookings(any());
+    }
+
+    @Test
+    void expandOwners_whenItemsHaveOwners_thenLoadOwnersInOneQuery() {
+        User second = User.builder().id(2L).name("second").email("second@mail.ru").build();
+        ItemDto first = ItemDto.builder().id(1L).ownerId(OWNER_ID).build();
+        ItemDto other = ItemDto.builder().id(2L).ownerId(2L).build();
+        ItemDto third = ItemDto.builder().id(3L).ownerId(OWNER_ID).build();
+        when(userRepository.findAllById(any())).thenReturn(List.of(outRep.getOwner(), second));
+
+        List<ItemDto> result = itemServiceDb.expandOwners(List.of(first, other, third));
+
+        verify(userRepository).findAllById(Set.of(OWNER_ID, 2L));
+        assertEquals(OWNER_ID, result.get(0).getOwner().getId());
+        assertEquals("second", result.get(1).getOwner().getName());
+        assertEquals(OWNER_ID, result.get(2).getOwner().getId());
+        assertNull(first.getOwner());
+    }
+
+    @Test
+    void expandOwners_whenEmpty_thenNoQuery() {
+        assertEquals(List.of(), itemServiceDb.expandOwners(List.of()));
+        verify(userRepository, never()).findAllById(any());
     }
 
     @Test
@@ -298,6 +457,28 @@ public class ItemServiceDbTest {
         assertEquals(input, result);
     }
 
+    @Test
+    void updateItem_whenSearchCached_thenOnlyMatchingTermsSearchedAgain() {
+        Item tent = Item.builder().id(2L).name("Палатка").description("Двухместная").available(true)
+                .owner(outRep.getOwner()).build();
+        when(itemRepository.search(any(), any())).thenReturn(List.of(ItemMapper.toItemDto(tent)));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(outRep));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(itemRepository.getItemOwner(anyLong())).thenReturn(owner);
+        itemServiceDb.getItemByText("палатка", 0, 10);
+        itemServiceDb.getItemByText("test", 0, 10);
+        itemServiceDb.getItemByText("name", 0, 10);
+
+        itemServiceDb.updateItem(OWNER_ID, input, ITEM_ID);
+        itemServiceDb.getItemByText("палатка", 0, 10);
+        itemServiceDb.getItemByText("test", 0, 10);
+        itemServiceDb.getItemByText("name", 0, 10);
+
+        verify(itemRepository, times(1)).search(eq("ПАЛАТКА"), any());
+        verify(itemRepository, times(2)).search(eq("TEST"), any());
+        verify(itemRepository, times(2)).search(eq("NAME"), any());
+    }
+
     @Test
     void addComment_whenItemNotFound_thenThrowException() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -334,10 +515,22 @@ public class ItemServiceDbTest {
         verify(commentRepository, never()).save(any());
     }
 
+    @Test
+    void addComment_whenBookingArchived_thenAddComment() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requestor));
+        when(bookingRepository.findByBookerAndItem(any(), any())).thenReturn(new ArrayList<>());
+        when(archivedBookingRepository.existsByBookerIdAndItemId(any(), any())).thenReturn(true);
+
+        itemServiceDb.addComment(ITEM_ID, REQUESTOR_ID, new CommentDto());
+
+        verify(commentRepository).save(any());
+    }
+
     @Test
     void addComment_whenCorrect_thenAddComment() {
         Booking booking = new Booking(362L, LocalDateTime.now(), LocalDateTime.now(), item, requestor,
-                BookingStatus.APPROVED);
+                owner, BookingStatus.APPROVED);
         List<Booking> bookingList = new ArrayList<>();
         bookingList.add(booking);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
@@ -359,4 +552,63 @@ public class ItemServiceDbTest {
 
         assertEquals("commentText", comment.getText());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_whenPeriodNotSet_thenUseNextThirtyDays() {
+        LocalDate today = LocalDate.now();
+        List<AvailabilityDto> ranges = List.of(new AvailabilityDto(today, today.plusDays(30), true));
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(30))).thenReturn(ranges);
+
+        assertEquals(ranges, itemServiceDb.getAvailability(ITEM_ID, null, null));
+    }
+
+    @Test
+    void getAvailability_whenItemNotFound_thenThrowMissingObjectException() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(false);
+
+        assertThrows(MissingObjectException.class,
+                () -> itemServiceDb.getAvailability(ITEM_ID, null, null));
+        verify(bookingCalendar, never()).getAvailability(anyLong(), any(), any());
+    }
+
+    @Test
+    void getAvailability_whenPeriodIncorrect_thenThrowInvalidRequestException() {
+        LocalDate today = LocalDate.now();
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class,
+                () -> itemServiceDb.getAvailability(ITEM_ID, today.minusDays(1), today));
+        assertThrows(InvalidRequestException.class,
+                () -> itemServiceDb.getAvailability(ITEM_ID, today.plusDays(2), today.plusDays(1)));
+        assertThrows(InvalidRequestException.class,
+                () -> itemServiceDb.getAvailability(ITEM_ID, today, today.plusDays(365)));
+        verify(bookingCalendar, never()).getAvailability(anyLong(), any(), any());
+    }
+
+    @Test
+    void getAvailability_whenPeriodIsYearInclusive_thenReturnFromCalendar() {
+        LocalDate today = LocalDate.now();
+        List<AvailabilityDto> ranges = List.of(new AvailabilityDto(today, today.plusDays(364), true));
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(bookingCalendar.getAvailability(ITEM_ID, today, today.plusDays(364))).thenReturn(ranges);
+
+        assertEquals(ranges, itemServiceDb.getAvailability(ITEM_ID, today, today.plusDays(364)));
+    }
+
+    @Test
+    void getSuggestions_whenPrefixPresent_thenReturnedFromIndex() {
+        List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto(ITEM_ID, "Дрель"));
+        when(itemNameIndex.suggest("дре", 5)).thenReturn(suggestions);
+
+        assertEquals(suggestions, itemServiceDb.getSuggestions("дре", 5));
+        assertEquals(List.of(), itemServiceDb.getSuggestions(" ", 5));
+    }
+
+    @Test
+    void getSuggestions_whenLimitIncorrect_thenThrowInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> itemServiceDb.getSuggestions("дре", 0));
+        assertThrows(InvalidRequestException.class, () -> itemServiceDb.getSuggestions("дре", 51));
+        verify(itemNameIndex, never()).suggest(any(), anyInt());
+    }
+}
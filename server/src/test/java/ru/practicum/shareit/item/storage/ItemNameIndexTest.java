@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameIndexTest {
+    private ItemNameIndex itemNameIndex;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final ItemSuggestionDto drill = new ItemSuggestionDto(1L, "Дрель");
+    private final ItemSuggestionDto drillBosch = new ItemSuggestionDto(2L, "Дрель Bosch");
+    private final ItemSuggestionDto tent = new ItemSuggestionDto(3L, "Палатка");
+
+    @BeforeEach
+    void init() {
+        itemNameIndex = new ItemNameIndex(itemRepository, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void suggest_whenPrefixMatches_thenReturnedNamesInOrder() {
+        when(itemRepository.findAvailableNames()).thenReturn(List.of(tent, drillBosch, drill));
+
+        assertEquals(List.of(drill, drillBosch), itemNameIndex.suggest("дре", 10));
+        assertEquals(List.of(drill), itemNameIndex.suggest("ДРЕ", 1));
+        assertEquals(List.of(), itemNameIndex.suggest("велосипед", 10));
+        verify(itemRepository, times(1)).findAvailableNames();
+    }
+
+    @Test
+    void update_whenItemRenamedOrUnavailable_thenIndexChanged() {
+        when(itemRepository.findAvailableNames()).thenReturn(List.of(drill, tent));
+        itemNameIndex.suggest("д", 10);
+
+        itemNameIndex.update(new Item(1L, "Перфоратор", "desc", true, null, null));
+        itemNameIndex.update(new Item(3L, "Палатка", "desc", false, null, null));
+
+        assertEquals(List.of(), itemNameIndex.suggest("дрель", 10));
+        assertEquals(List.of(new ItemSuggestionDto(1L, "Перфоратор")), itemNameIndex.suggest("п", 10));
+    }
+
+    @Test
+    void reset_whenCalled_thenReloadOnNextRequest() {
+        when(itemRepository.findAvailableNames()).thenReturn(List.of(drill));
+        itemNameIndex.suggest("д", 10);
+
+        itemNameIndex.reset();
+        itemNameIndex.suggest("д", 10);
+
+        verify(itemRepository, times(2)).findAvailableNames();
+    }
+
+    @Test
+    void suggest_whenIndexExpired_thenReload() {
+        itemNameIndex = new ItemNameIndex(itemRepository, Duration.ZERO);
+        when(itemRepository.findAvailableNames()).thenReturn(List.of(drill), List.of(drill, drillBosch));
+
+        assertEquals(List.of(drill), itemNameIndex.suggest("дрель", 10));
+        assertEquals(List.of(drill, drillBosch), itemNameIndex.suggest("дрель", 10));
+        verify(itemRepository, times(2)).findAvailableNames();
+    }
+}
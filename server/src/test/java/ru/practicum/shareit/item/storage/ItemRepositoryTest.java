@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -16,11 +19,14 @@ import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class ItemRepositoryTest {
@@ -69,26 +75,75 @@ public class ItemRepositoryTest {
 
     @Test
     public void findAllByOwnerTest() {
-        List<Item> items = itemRepository.findByOwner(firstUser, pageable);
+        List<ItemDto> items = itemRepository.findDtoByOwnerId(firstUser.getId(), pageable);
 
-        assertThat(items, hasItems(firstItem, secondItem));
-        assertThat(items, not(hasItems(thirdItem)));
+        assertThat(items, hasItems(ItemMapper.toItemDto(firstItem), ItemMapper.toItemDto(secondItem)));
+        assertThat(items, not(hasItems(ItemMapper.toItemDto(thirdItem))));
     }
 
     @Test
-    public void findAllByRequestTest() {
-        List<Item> items = itemRepository.findByRequest(firstRequest);
+    public void findDtoByIdTest() {
+        ItemDto item = itemRepository.findDtoById(thirdItem.getId()).orElseThrow();
 
-        assertThat(items, hasItems(firstItem, secondItem));
-        assertThat(items, not(hasItems(thirdItem)));
+        assertEquals(ItemMapper.toItemDto(thirdItem), item);
+        assertNull(item.getOwner());
+        assertTrue(itemRepository.findDtoById(100L).isEmpty());
+    }
+
+    @Test
+    public void findDtoByIdWithoutRequestTest() {
+        testEntityManager.getEntityManager().getTransaction().begin();
+        Item withoutRequest = testEntityManager.persist(
+                new Item(null, "Без запроса", "Дрель", true, firstUser, null));
+        testEntityManager.getEntityManager().getTransaction().commit();
+
+        ItemDto item = itemRepository.findDtoById(withoutRequest.getId()).orElseThrow();
+
+        assertNull(item.getRequestId());
+        assertEquals(firstUser.getId(), item.getOwnerId());
+    }
+
+    @Test
+    public void findAnswersTest() {
+        List<ItemForRequestDto> answers = itemRepository.findAnswers(List.of(firstRequest.getId()));
+
+        assertThat(answers, hasItems(ItemMapper.toItemForRequestDto(firstItem),
+                ItemMapper.toItemForRequestDto(secondItem)));
+        assertThat(answers, not(hasItems(ItemMapper.toItemForRequestDto(thirdItem))));
     }
 
     @Test
     public void findByText() {
-        List<Item> items = itemRepository.search("вТоРоГо", pageable);
+        List<ItemDto> items = itemRepository.search("вТоРоГо", pageable);
+
+        assertEquals(List.of(ItemMapper.toItemDto(secondItem)), items);
+    }
+
+    @Test
+    public void searchSkipsUnavailable() {
+        testEntityManager.getEntityManager().getTransaction().begin();
+        Item unavailable = testEntityManager.persist(
+                new Item(null, "Название второго снятого", "Описание", false, firstUser, null));
+        testEntityManager.getEntityManager().getTransaction().commit();
+
+        List<ItemDto> items = itemRepository.search("второго", CustomPageRequest.create(0, 1));
+
+        assertEquals(List.of(ItemMapper.toItemDto(secondItem)), items);
+        assertThat(items, not(hasItems(ItemMapper.toItemDto(unavailable))));
+    }
+
+    @Test
+    public void searchRanksNameMatchesFirst() {
+        testEntityManager.getEntityManager().getTransaction().begin();
+        Item nameMatch = testEntityManager.persist(
+                new Item(null, "Описание в названии", "Дрель", true, firstUser, null));
+        testEntityManager.getEntityManager().getTransaction().commit();
+
+        List<ItemDto> items = itemRepository.search("описание", pageable);
 
-        assertThat(items, hasItems(secondItem));
-        assertThat(items, not(hasItems(firstItem, thirdItem)));
+        assertEquals(List.of(nameMatch, firstItem, secondItem, thirdItem).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()), items);
     }
 
     @Test
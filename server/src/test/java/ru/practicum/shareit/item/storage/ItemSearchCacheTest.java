@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    private ItemSearchCache itemSearchCache;
+    private AtomicInteger searches;
+    private Function<String, List<ItemDto>> search;
+
+    @BeforeEach
+    void init() {
+        itemSearchCache = new ItemSearchCache(100, Duration.ofMinutes(5));
+        searches = new AtomicInteger();
+        search = text -> {
+            searches.incrementAndGet();
+            return List.of(ItemDto.builder().id(1L).name("Дрель").description("Ударная").build());
+        };
+    }
+
+    @Test
+    void get_whenSameTextInOtherCase_thenSearchOnce() {
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.get("ДРЕЛЬ", 0, 10, search);
+        itemSearchCache.get("дрель", 10, 10, search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void get_whenTextNormalized_thenSearchWithKeyText() {
+        List<String> texts = new ArrayList<>();
+
+        itemSearchCache.get("ДрЕлЬ", 0, 10, text -> {
+            texts.add(text);
+            return List.of();
+        });
+
+        assertEquals(List.of("ДРЕЛЬ"), texts);
+    }
+
+    @Test
+    void evictAll_whenItemChanged_thenSearchAgain() {
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.get("палатка", 0, 10, search);
+
+        itemSearchCache.evictAll();
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.get("палатка", 0, 10, search);
+
+        assertEquals(4, searches.get());
+    }
+
+    @Test
+    void evictMatching_whenTermInItemText_thenOnlyMatchingSearchedAgain() {
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.get("палатка", 0, 10, search);
+
+        itemSearchCache.evictMatching("Дрель ударная", "Мощная");
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.get("палатка", 0, 10, search);
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void evictMatching_whenItemTextExpandsInUpperCase_thenMatchingSearchedAgain() {
+        itemSearchCache.get("strasse", 0, 10, search);
+
+        itemSearchCache.evictMatching("Straße", null);
+        itemSearchCache.get("strasse", 0, 10, search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void evictMatching_whenTermCaseAmbiguous_thenSearchAgain() {
+        itemSearchCache.get("ẞ", 0, 10, search);
+
+        itemSearchCache.evictMatching("палатка", null);
+        itemSearchCache.get("ẞ", 0, 10, search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void get_whenEvictedDuringSearch_thenResultNotCached() {
+        itemSearchCache.get("дрель", 0, 10, text -> {
+            itemSearchCache.evictAll();
+            return search.apply(text);
+        });
+        itemSearchCache.get("дрель", 0, 10, search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void evictContaining_whenItemInResults_thenSearchAgain() {
+        itemSearchCache.get("дрель", 0, 10, search);
+
+        itemSearchCache.evictContaining(2L);
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.evictContaining(1L);
+        itemSearchCache.get("дрель", 0, 10, search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void bindTo_whenCacheUsed_thenHitsAndMissesRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        itemSearchCache.bindTo(registry);
+
+        itemSearchCache.get("дрель", 0, 10, search);
+        itemSearchCache.get("дрель", 0, 10, search);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count());
+    }
+}
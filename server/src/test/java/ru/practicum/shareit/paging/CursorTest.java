@@ -0,0 +1,28 @@
+package ru.practicum.shareit.paging;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.InvalidRequestException;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+
+    @Test
+    void decode_whenEncoded_thenReturnedSameCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2030, 1, 1, 10, 0, 0, 123456000), 42L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_whenTokenIncorrect_thenThrowInvalidRequestException() {
+        String withoutId = Base64.getUrlEncoder().encodeToString("2030-01-01T10:00".getBytes());
+
+        assertThrows(InvalidRequestException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(InvalidRequestException.class, () -> Cursor.decode(withoutId));
+    }
+}
@@ -12,8 +12,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.LinkedMultiValueMap;
 
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
@@ -43,7 +46,7 @@ class ItemRequestControllerTest {
     @SneakyThrows
     @Test
     void getYourRequests_whenRequestCorrect_thenReturnedOk() {
-        when(requestService.getRequestsByUser(anyLong())).thenReturn(List.of(requestDto));
+        when(requestService.getRequestsByUser(1L, null, null)).thenReturn(List.of(requestDto));
 
         String result = mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1))
@@ -52,17 +55,31 @@ class ItemRequestControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        verify(requestService).getRequestsByUser(anyLong());
+        verify(requestService).getRequestsByUser(1L, null, null);
         assertEquals(objectMapper.writeValueAsString(List.of(requestDto)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getYourRequests_whenPageSet_thenPassedToService() {
+        when(requestService.getRequestsByUser(1L, 20, 10)).thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests")
+                        .param("from", "20")
+                        .param("size", "10")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+
+        verify(requestService).getRequestsByUser(1L, 20, 10);
+    }
+
     @SneakyThrows
     @Test
     void getYourRequests_whenNotUserId_thenReturnedClientError() {
         mockMvc.perform(get("/requests"))
                 .andExpect(status().is4xxClientError());
 
-        verify(requestService, never()).getRequestsByUser(anyLong());
+        verify(requestService, never()).getRequestsByUser(anyLong(), any(), any());
     }
 
     @SneakyThrows
@@ -116,6 +133,51 @@ class ItemRequestControllerTest {
         assertEquals(objectMapper.writeValueAsString(List.of(requestDto)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getAllRequests_whenAfterPresent_thenReturnedNextCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2030, 1, 1, 10, 0), 9L);
+        requestDto = ItemRequestDto.builder().id(8L).created(LocalDateTime.of(2029, 1, 1, 10, 0)).build();
+        when(requestService.getAllRequestsAfter(1L, cursor, 1)).thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .param("after", cursor.encode())
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        new Cursor(requestDto.getCreated(), 8L).encode()));
+
+        verify(requestService, never()).getAllRequests(anyLong(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllRequests_whenFromNotSet_thenStartFromFirstPage() {
+        when(requestService.getAllRequests(1L, 0, 10)).thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+
+        verify(requestService).getAllRequests(1L, 0, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllRequests_whenFromAndAfterPresent_thenReturnedBadRequest() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2030, 1, 1, 10, 0), 9L);
+
+        mockMvc.perform(get("/requests/all")
+                        .param("from", "0")
+                        .param("after", cursor.encode())
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+
+        verify(requestService, never()).getAllRequestsAfter(anyLong(), any(), anyInt());
+        verify(requestService, never()).getAllRequests(anyLong(), anyInt(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     void getAllRequests_whenNotUserId_thenReturnedClientError() {
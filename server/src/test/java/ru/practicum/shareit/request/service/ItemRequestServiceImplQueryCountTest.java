@@ -0,0 +1,89 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import ru.practicum.shareit.StatementCountingTest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = "shareit.requests.max-page-size=" + ItemRequestServiceImplQueryCountTest.MAX_PAGE_SIZE)
+@Import({ItemRequestServiceImpl.class, UserExistenceIndex.class})
+class ItemRequestServiceImplQueryCountTest extends StatementCountingTest {
+    static final int MAX_PAGE_SIZE = 5;
+
+    @Autowired
+    private ItemRequestServiceImpl requestService;
+    @Autowired
+    private UserExistenceIndex userExistenceIndex;
+    private User owner;
+    private User reader;
+    private User requestor;
+
+    @BeforeEach
+    void init() {
+        owner = persistUser("owner");
+        reader = persistUser("reader");
+        requestor = persistUser("requestor");
+        userExistenceIndex.add(reader.getId());
+    }
+
+    @Test
+    void getAllRequests_whenPageHasMoreRequests_thenQueryCountDoesNotGrow() {
+        createRequestsWithAnswers(2);
+        long smallCount = countStatements(2);
+        createRequestsWithAnswers(30);
+        long bigCount = countStatements(32);
+
+        assertEquals(smallCount, bigCount);
+    }
+
+    @Test
+    void getAllRequests_whenRequestsHaveAnswers_thenFillItems() {
+        createRequestsWithAnswers(3);
+        em.clear();
+
+        List<ItemRequestDto> result = requestService.getAllRequests(reader.getId(), 0, 10);
+
+        assertEquals(3, result.size());
+        for (ItemRequestDto request : result) {
+            assertEquals(2, request.getItems().size());
+        }
+    }
+
+    @Test
+    void getRequestsByUser_whenPageNotSet_thenAtMostMaxPageSizeFetched() {
+        createRequestsWithAnswers(MAX_PAGE_SIZE + 3);
+        userExistenceIndex.add(requestor.getId());
+        em.clear();
+
+        List<ItemRequestDto> result = requestService.getRequestsByUser(requestor.getId(), null, null);
+
+        assertEquals(MAX_PAGE_SIZE, result.size());
+        assertEquals("request " + (MAX_PAGE_SIZE + 2), result.get(0).getDescription());
+    }
+
+    private long countStatements(int size) {
+        return countStatements(() -> assertEquals(size, requestService.getAllRequests(reader.getId(), 0, size).size()));
+    }
+
+    private void createRequestsWithAnswers(int count) {
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = em.persist(new ItemRequest(null, "request " + i, requestor,
+                    LocalDateTime.now().minusMinutes(i)));
+            for (int j = 0; j < 2; j++) {
+                persistItem("item " + i + "." + j, owner, request);
+            }
+        }
+        em.flush();
+    }
+}
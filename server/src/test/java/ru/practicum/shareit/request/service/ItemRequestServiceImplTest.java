@@ -4,39 +4,41 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Sort;
 
 import ru.practicum.shareit.exception.MissingObjectException;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.paging.Cursor;
 import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class ItemRequestServiceImplTest {
+    private static final int MAX_PAGE_SIZE = 100;
 
-    @InjectMocks
     private ItemRequestServiceImpl requestService;
     @Mock
     private ItemRepository itemRepository;
@@ -44,6 +46,8 @@ class ItemRequestServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRequestRepository requestRepository;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
     private ItemRequestDto itemRequestDto;
     private ItemRequest request;
     private Item item;
@@ -52,6 +56,10 @@ class ItemRequestServiceImplTest {
 
     @BeforeEach
     void init() {
+        requestService = new ItemRequestServiceImpl(requestRepository, userRepository, itemRepository,
+                userExistenceIndex, MAX_PAGE_SIZE);
+        when(userExistenceIndex.exists(anyLong())).thenReturn(true);
+        doCallRealMethod().when(userExistenceIndex).check(any());
 
         owner = User.builder()
                 .id(1L)
@@ -111,44 +119,45 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestById_whenRequestorNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
         assertThrows(MissingObjectException.class, () -> requestService.getRequestById(2L, 1L));
 
-        verify(itemRepository, never()).findByRequest(any());
+        verify(itemRepository, never()).findAnswers(any());
     }
 
     @Test
     void getRequestById_whenRequestNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requestor));
         when(requestRepository.findById(any())).thenReturn(Optional.empty());
 
         assertThrows(MissingObjectException.class, () -> requestService.getRequestById(2L, 1L));
 
-        verify(itemRepository, never()).findByRequest(any());
+        verify(itemRepository, never()).findAnswers(any());
     }
 
     @Test
     void getRequestById_whenCorrect_thenReturnedRequest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requestor));
         when(requestRepository.findById(any())).thenReturn(Optional.of(request));
-        when(itemRepository.findByRequest(any())).thenReturn(List.of(item));
+        item.setRequest(request);
+        ItemForRequestDto answer = ItemMapper.toItemForRequestDto(item);
+        when(itemRepository.findAnswers(List.of(request.getId()))).thenReturn(List.of(answer));
 
         ItemRequestDto result = requestService.getRequestById(2L, 1L);
 
-        verify(itemRepository).findByRequest(any());
+        verify(userRepository, never()).findById(anyLong());
+        verify(itemRepository).findAnswers(any());
         ItemRequestDto collation = ItemRequestMapper.toItemRequestDto(request);
-        collation.setItems(Stream.of(item).map(ItemMapper::toItemForRequestDto).collect(Collectors.toList()));
+        collation.setItems(List.of(answer));
         assertEquals(collation, result);
     }
 
     @Test
     void getAllRequests_whenRequestorNotFound_thenThrowException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
         assertThrows(MissingObjectException.class, () -> requestService.getAllRequests(2L, null, null));
 
-        verify(itemRepository, never()).findByRequest(any());
+        verify(itemRepository, never()).findAnswers(any());
     }
 
     @Test
@@ -160,7 +169,7 @@ class ItemRequestServiceImplTest {
         requestsInDb.add(getMockItemRequest());
         requestsInDb.add(getMockItemRequest());
         requestsInDb.add(getMockItemRequest());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requestor));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(requestor);
         when(requestRepository.findByRequestorNot(any(), any())).thenReturn(requestsInDb);
 
         List<ItemRequestDto> result = requestService.getAllRequests(2L, null, null);
@@ -182,7 +191,7 @@ class ItemRequestServiceImplTest {
         requestsInDb.add(getMockItemRequest());
         requestsInDb.add(getMockItemRequest());
         requestsInDb.add(getMockItemRequest());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requestor));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(requestor);
         when(requestRepository.findByRequestorNot(any(), any())).thenReturn(requestsInDb);
         List<ItemRequestDto> result = requestService.getAllRequests(2L, 1, 4);
 
@@ -195,13 +204,30 @@ class ItemRequestServiceImplTest {
         assertEquals(4, pageable.getPageSize());
     }
 
+    @Test
+    void getAllRequestsAfter_whenCursorPresent_thenSeekAfterCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2030, 1, 1, 10, 0), 7L);
+        ItemRequest requestInDb = getMockItemRequest();
+        when(userRepository.getReferenceById(anyLong())).thenReturn(requestor);
+        when(requestRepository.findPageByRequestorNot(any(), any(), any(), any())).thenReturn(List.of(requestInDb));
+
+        List<ItemRequestDto> result = requestService.getAllRequestsAfter(2L, cursor, 5);
+
+        ArgumentCaptor<CustomPageRequest> captor = ArgumentCaptor.forClass(CustomPageRequest.class);
+        verify(requestRepository).findPageByRequestorNot(eq(requestor), eq(cursor.getTimestamp()), eq(7L),
+                captor.capture());
+        assertEquals(1, result.size());
+        assertEquals(0L, captor.getValue().getOffset());
+        assertEquals(5, captor.getValue().getPageSize());
+    }
+
     @Test
     void getRequestsByUser_whenUserNotFound_thenThrowException() {
-        when(userRepository.findById(any())).thenReturn(Optional.empty());
+        when(userExistenceIndex.exists(anyLong())).thenReturn(false);
 
-        assertThrows(MissingObjectException.class, () -> requestService.getRequestsByUser(1L));
+        assertThrows(MissingObjectException.class, () -> requestService.getRequestsByUser(1L, 0, 10));
 
-        verify(itemRepository, never()).findByRequest(any());
+        verify(itemRepository, never()).findAnswers(any());
     }
 
     @Test
@@ -210,15 +236,33 @@ class ItemRequestServiceImplTest {
         requestsInDb.add(getMockItemRequest());
         requestsInDb.add(getMockItemRequest());
         requestsInDb.add(getMockItemRequest());
-        when(userRepository.findById(any())).thenReturn(Optional.of(requestor));
-        when(requestRepository.findByRequestor(any())).thenReturn(requestsInDb);
-        when(itemRepository.findByRequest(any())).thenReturn(List.of(item));
-
-        List<ItemRequestDto> result = requestService.getRequestsByUser(2L);
+        when(userRepository.getReferenceById(anyLong())).thenReturn(requestor);
+        when(requestRepository.findByRequestor(any(), any())).thenReturn(requestsInDb);
+        when(itemRepository.findAnswers(any())).thenReturn(List.of(ItemMapper.toItemForRequestDto(item)));
 
-        verify(itemRepository, times(3)).findByRequest(any());
+        List<ItemRequestDto> result = requestService.getRequestsByUser(2L, 3, 10);
 
+        ArgumentCaptor<CustomPageRequest> captor = ArgumentCaptor.forClass(CustomPageRequest.class);
+        verify(requestRepository).findByRequestor(any(), captor.capture());
+        verify(itemRepository, times(1)).findAnswers(any());
         assertEquals(requestsInDb.size(), result.size());
+        assertEquals(3L, captor.getValue().getOffset());
+        assertEquals(10, captor.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Direction.ASC, "created", "id"), captor.getValue().getSort());
+    }
+
+    @Test
+    void getRequestsByUser_whenPageNotSet_thenReturnedFirstMaxPage() {
+        ItemRequest request = getMockItemRequest();
+        when(userRepository.getReferenceById(anyLong())).thenReturn(requestor);
+        when(requestRepository.findByRequestor(any(), any())).thenReturn(List.of(request));
+
+        requestService.getRequestsByUser(2L, null, null);
+
+        ArgumentCaptor<CustomPageRequest> captor = ArgumentCaptor.forClass(CustomPageRequest.class);
+        verify(requestRepository).findByRequestor(any(), captor.capture());
+        assertEquals(0L, captor.getValue().getOffset());
+        assertEquals(MAX_PAGE_SIZE, captor.getValue().getPageSize());
     }
 
     private ItemRequest getMockItemRequest() {
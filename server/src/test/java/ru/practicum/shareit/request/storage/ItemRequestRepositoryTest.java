@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import ru.practicum.shareit.paging.CustomPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -17,6 +19,7 @@ import java.util.List;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
 public class ItemRequestRepositoryTest {
@@ -55,11 +58,31 @@ public class ItemRequestRepositoryTest {
 
     @Test
     void findByRequestor() {
-        List<ItemRequest> result = itemRequestRepository.findByRequestor(firstUser);
+        List<ItemRequest> result = itemRequestRepository.findByRequestor(firstUser, CustomPageRequest.create(0, 10));
         assertThat(result, hasItems(firstRequest));
         assertThat(result, not(hasItems(secondRequest)));
     }
 
+    @Test
+    void findPageByRequestorNot_whenCursorPresent_thenReturnedOlderRequests() {
+        ItemRequest olderRequest = new ItemRequest(null, "Описание старого", firstUser,
+                firstRequest.getCreated().minusDays(1));
+        entityManager.getEntityManager().getTransaction().begin();
+        olderRequest = entityManager.persist(olderRequest);
+        entityManager.getEntityManager().getTransaction().commit();
+        entityManager.clear();
+        Pageable page = CustomPageRequest.createForCursor(1, Sort.by(Sort.Direction.DESC, "created", "id"));
+
+        List<ItemRequest> first = itemRequestRepository.findPageByRequestorNot(secondUser,
+                firstRequest.getCreated().plusDays(1), Long.MAX_VALUE, page);
+        List<ItemRequest> second = itemRequestRepository.findPageByRequestorNot(secondUser,
+                first.get(0).getCreated(), first.get(0).getId(), page);
+
+        assertEquals(firstRequest.getId(), first.get(0).getId());
+        assertEquals(olderRequest.getId(), second.get(0).getId());
+        assertEquals(1, second.size());
+    }
+
     @Test
     void findByRequestorNot() {
         List<ItemRequest> result = itemRequestRepository
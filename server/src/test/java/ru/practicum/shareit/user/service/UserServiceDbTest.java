@@ -12,10 +12,17 @@ import org.mockito.quality.Strictness;
 
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.MissingObjectException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemNameIndex;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceIndex;
 import ru.practicum.shareit.user.storage.UserRepository;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +35,16 @@ import static org.mockito.Mockito.*;
 class UserServiceDbTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemNameIndex itemNameIndex;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache entityCache;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
     @InjectMocks
     private UserServiceDb userServiceDb;
 
@@ -83,6 +100,7 @@ class UserServiceDbTest {
         UserDto userDto = userServiceDb.createUser(UserMapper.toUserDto(user));
 
         verify(userRepository).save(user);
+        verify(userExistenceIndex).add(userId);
         assertEquals(UserMapper.toUserDto(user), userDto);
     }
 
@@ -145,7 +163,13 @@ class UserServiceDbTest {
 
     @Test
      void deleteUserById_deletes() {
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
         userServiceDb.deleteUser(0L);
         verify(userRepository).deleteById(0L);
+        verify(userExistenceIndex).remove(0L);
+        verify(itemNameIndex).reset();
+        verify(itemSearchCache).evictAll();
+        verify(entityCache).evict(Item.class);
+        verify(entityCache).evict(ItemRequest.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.exception.MissingObjectException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceIndexTest {
+    @Mock
+    private UserRepository userRepository;
+    private UserExistenceIndex userExistenceIndex;
+
+    @BeforeEach
+    void init() {
+        userExistenceIndex = new UserExistenceIndex(userRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void exists_whenUserConfirmed_thenNotQueriedAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(userExistenceIndex.exists(1L));
+        assertTrue(userExistenceIndex.exists(1L));
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenUserMissing_thenQueriedEveryTime() {
+        when(userRepository.existsById(1L)).thenReturn(false, true);
+
+        assertFalse(userExistenceIndex.exists(1L));
+        assertTrue(userExistenceIndex.exists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenUserAddedOrRemoved_thenIndexChanged() {
+        userExistenceIndex.add(5L);
+        assertTrue(userExistenceIndex.exists(5L));
+        verify(userRepository, never()).existsById(anyLong());
+
+        userExistenceIndex.remove(5L);
+        when(userRepository.existsById(5L)).thenReturn(false);
+        assertFalse(userExistenceIndex.exists(5L));
+    }
+
+    @Test
+    void exists_whenIdNotPositive_thenFalseWithoutQuery() {
+        assertFalse(userExistenceIndex.exists(null));
+        assertFalse(userExistenceIndex.exists(0L));
+        assertFalse(userExistenceIndex.exists(-1L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void exists_whenConfirmationExpired_thenQueriedAgain() {
+        userExistenceIndex = new UserExistenceIndex(userRepository, 100, Duration.ZERO);
+        when(userRepository.existsById(1L)).thenReturn(true, false);
+
+        assertTrue(userExistenceIndex.exists(1L));
+        assertFalse(userExistenceIndex.exists(1L));
+    }
+
+    @Test
+    void exists_whenUserRemovedDuringQuery_thenNotRemembered() {
+        when(userRepository.existsById(1L)).thenAnswer(invocation -> {
+            userExistenceIndex.remove(1L);
+            return true;
+        }).thenReturn(false);
+
+        assertTrue(userExistenceIndex.exists(1L));
+        assertFalse(userExistenceIndex.exists(1L));
+    }
+
+    @Test
+    void check_whenUserMissing_thenThrowMissingObjectException() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(MissingObjectException.class, () -> userExistenceIndex.check(1L));
+        assertDoesNotThrow(() -> userExistenceIndex.check(2L));
+    }
+}